@@ -0,0 +1,129 @@
+package com.noosyn.onboarding;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Compares request throughput of embedded Tomcat on its default platform
+ * thread pool and on virtual threads, as enabled by
+ * {@code spring.threads.virtual.enabled}.
+ * <p>
+ * Every request blocks for {@link #BLOCKED} to stand in for a database or
+ * remote call, and {@link #CONNECTIONS} clients keep requests in flight at
+ * once. With platform threads, throughput is capped by the 200 request
+ * threads; with virtual threads, by the number of open connections.
+ * </p>
+ *
+ * <p>
+ * The ceilings follow from the setup: 200 threads / 50 ms = 4,000 req/s on
+ * platform threads, and 2,000 connections / 50 ms = 40,000 req/s on virtual
+ * threads. The benchmark prints the measured rates and fails unless virtual
+ * threads come out ahead. It needs a Java 21 runtime.
+ * </p>
+ *
+ * <p>
+ * Not part of the regular build; run with
+ * {@code ./mvnw -Pbenchmark test -Dtest=VirtualThreadBenchmark}.
+ * </p>
+ */
+class VirtualThreadBenchmark {
+
+    private static final int CONNECTIONS = 2_000;
+    private static final int REQUESTS_PER_CONNECTION = 10;
+    private static final Duration BLOCKED = Duration.ofMillis(50);
+
+    @Test
+    void CompareVirtualAndPlatformRequestThreads() throws Exception {
+        measure(false);
+        double platform = measure(false);
+        measure(true);
+        double virtual = measure(true);
+
+        System.out.printf("%d connections, %d ms blocked per request: platform %.0f req/s, virtual %.0f req/s (%.1fx)%n",
+                CONNECTIONS, BLOCKED.toMillis(), platform, virtual, virtual / platform);
+        assertTrue(virtual > platform);
+    }
+
+    /**
+     * Starts Tomcat on a random port and returns the completed requests per
+     * second.
+     */
+    private static double measure(boolean virtualThreads) throws Exception {
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        if (virtualThreads) {
+            factory.addProtocolHandlerCustomizers(handler -> handler.setExecutor(new VirtualThreadExecutor("bench-")));
+        }
+        WebServer server = factory.getWebServer(context -> context
+                .addServlet("blocking", new BlockingServlet())
+                .addMapping("/"));
+        server.start();
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/"))
+                .timeout(Duration.ofMinutes(1))
+                .build();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> results = new ArrayList<>(CONNECTIONS);
+            long start = System.nanoTime();
+            for (int i = 0; i < CONNECTIONS; i++) {
+                results.add(clients.submit(() -> {
+                    int ok = 0;
+                    for (int r = 0; r < REQUESTS_PER_CONNECTION; r++) {
+                        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            ok++;
+                        }
+                    }
+                    return ok;
+                }));
+            }
+
+            int completed = 0;
+            for (Future<Integer> result : results) {
+                completed += result.get(5, TimeUnit.MINUTES);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            assertEquals(CONNECTIONS * REQUESTS_PER_CONNECTION, completed);
+            return completed / seconds;
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static final class BlockingServlet extends HttpServlet {
+
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            try {
+                Thread.sleep(BLOCKED);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            resp.getWriter().write("ok");
+        }
+    }
+}
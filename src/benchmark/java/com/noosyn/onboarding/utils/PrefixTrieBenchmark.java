@@ -0,0 +1,79 @@
+package com.noosyn.onboarding.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures the retained heap and lookup latency of {@link PrefixTrie} with
+ * one million product names.
+ * <p>
+ * Not part of the regular build; run with
+ * {@code ./mvnw -Pbenchmark test -Dtest=PrefixTrieBenchmark}. The figures
+ * it printed are recorded in the {@link PrefixTrie} class documentation.
+ * </p>
+ */
+class PrefixTrieBenchmark {
+
+    private static final int NAMES = 1_000_000;
+    private static final int LOOKUPS = 200_000;
+
+    private static final String[] ADJECTIVES = { "Gaming", "Wireless", "Portable", "Smart", "Ultra", "Compact",
+            "Pro", "Classic", "Premium", "Eco", "Mini", "Max", "Digital", "Rugged", "Slim", "Heavy-Duty" };
+    private static final String[] NOUNS = { "Laptop", "Phone", "Headphones", "Keyboard", "Mouse", "Monitor",
+            "Speaker", "Camera", "Charger", "Router", "Tablet", "Watch", "Backpack", "Desk Lamp", "Blender",
+            "Kettle", "Drill", "Jacket", "Sneakers", "Bottle" };
+
+    @Test
+    void MeasureMemoryAndLookupLatency() {
+        // Names are generated while adding so that their strings count towards the retained heap
+        long before = usedHeap();
+        PrefixTrie trie = new PrefixTrie();
+        Random random = new Random(42);
+        for (int i = 0; i < NAMES; i++) {
+            trie.add(name(random));
+        }
+        long retained = usedHeap() - before;
+
+        String[] prefixes = new String[LOOKUPS];
+        random = new Random(42);
+        for (int i = 0; i < LOOKUPS; i++) {
+            String name = name(random);
+            prefixes[i] = name.substring(0, 1 + random.nextInt(Math.min(12, name.length())));
+        }
+        for (String prefix : prefixes) {
+            trie.complete(prefix, 10);
+        }
+        long[] latencies = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            long start = System.nanoTime();
+            trie.complete(prefixes[i], 10);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("prefix trie: %d names, %.1f MB retained (%d B/name), "
+                + "complete(k=10) p50 %.1f us, p99 %.1f us%n",
+                NAMES, retained / 1048576.0, retained / NAMES,
+                latencies[LOOKUPS / 2] / 1000.0, latencies[LOOKUPS * 99 / 100] / 1000.0);
+        assertEquals(NAMES, trie.size());
+    }
+
+    private static String name(Random random) {
+        String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                + NOUNS[random.nextInt(NOUNS.length)] + " "
+                + (char) ('A' + random.nextInt(26)) + (random.nextInt(9000) + 100);
+        return random.nextBoolean() ? name : name + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " edition";
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
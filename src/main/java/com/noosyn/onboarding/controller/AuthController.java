@@ -1,6 +1,7 @@
 package com.noosyn.onboarding.controller;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -8,6 +9,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.noosyn.onboarding.dto.auth_dto.AuthResponse;
 import com.noosyn.onboarding.dto.auth_dto.LoginRequest;
+import com.noosyn.onboarding.dto.auth_dto.PasswordHashingStats;
 import com.noosyn.onboarding.dto.auth_dto.RegisterRequest;
 import com.noosyn.onboarding.service.AuthService;
 import com.noosyn.onboarding.utils.ApiEndPointConstants;
@@ -56,4 +58,14 @@ public class AuthController {
     public ResponseEntity<AuthResponse> login( @Valid @RequestBody LoginRequest req) {
         return ResponseEntity.ok(service.login(req));
     }
+
+    /**
+     * Reports the load of the password hashing pool.
+     *
+     * @return a {@link ResponseEntity} with the queue depth and wait times
+     */
+    @GetMapping(ApiEndPointConstants.HASHING_STATS)
+    public ResponseEntity<PasswordHashingStats> hashingStats() {
+        return ResponseEntity.ok(service.hashingStats());
+    }
 }
@@ -1,5 +1,14 @@
 package com.noosyn.onboarding.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -8,12 +17,29 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.noosyn.onboarding.dto.product_dto.BulkResponse;
+import com.noosyn.onboarding.dto.product_dto.CacheStatsResponse;
+import com.noosyn.onboarding.dto.product_dto.CatalogFormat;
+import com.noosyn.onboarding.dto.product_dto.CursorPageResponse;
+import com.noosyn.onboarding.dto.product_dto.ImportSummary;
 import com.noosyn.onboarding.dto.product_dto.PaginatedResponse;
+import com.noosyn.onboarding.dto.product_dto.ProductBatchResponse;
+import com.noosyn.onboarding.dto.product_dto.ProductBulkUpdateRequest;
+import com.noosyn.onboarding.dto.product_dto.ProductQuery;
 import com.noosyn.onboarding.dto.product_dto.ProductRequest;
 import com.noosyn.onboarding.dto.product_dto.ProductResponse;
+import com.noosyn.onboarding.dto.product_dto.TotalMode;
+import com.noosyn.onboarding.exception.AppException;
+import com.noosyn.onboarding.service.ProductAutocompleteService;
+import com.noosyn.onboarding.service.ProductBulkService;
+import com.noosyn.onboarding.service.ProductExportService;
+import com.noosyn.onboarding.service.ProductSearchIndex;
 import com.noosyn.onboarding.service.ProductService;
 import com.noosyn.onboarding.utils.ApiEndPointConstants;
 
@@ -24,9 +50,21 @@ import lombok.RequiredArgsConstructor;
  * REST controller providing CRUD operations for managing products.
  * <p>
  * Exposes endpoints under the {@code /products} path and delegates all business
- * logic to {@link ProductService}. Responses are wrapped using DTOs to ensure
+ * logic to {@link ProductService}, {@link ProductBulkService} for bulk
+ * writes, {@link ProductExportService} for catalog exports and
+ * {@link ProductSearchIndex} and {@link ProductAutocompleteService} for name
+ * search. Responses are wrapped using DTOs to ensure
  * clear separation between API models and internal entities.
  * </p>
+ *
+ * <p>
+ * Single products carry a strong {@code ETag} derived from their version and
+ * listings one derived from the catalog change counter. A matching
+ * {@code If-None-Match} is answered with {@code 304 Not Modified} and no body;
+ * for listings, before any product is read. Updates and deletes accept the
+ * product tag in {@code If-Match} and fail with {@code 412 Precondition Failed}
+ * when the product has changed since.
+ * </p>
  */
 @RestController
 @RequestMapping(ApiEndPointConstants.PRODUCT_BASE)
@@ -34,6 +72,10 @@ import lombok.RequiredArgsConstructor;
 public class ProductController {
 
     private final ProductService service;
+    private final ProductBulkService bulkService;
+    private final ProductExportService exportService;
+    private final ProductSearchIndex searchIndex;
+    private final ProductAutocompleteService autocompleteService;
 
     /**
      * Creates a new product.
@@ -47,50 +89,311 @@ public class ProductController {
     }
 
     /**
-     * Retrieves all products.
+     * Retrieves all products, optionally filtered by price and sorted.
+     * <p>
+     * Totals are estimated by default; pass {@code total=exact} only when an
+     * exact count is needed, or {@code total=none} to skip totals entirely.
+     * Estimated totals are omitted when a price filter is given.
+     * </p>
      *
-     * @return a {@link ResponseEntity} containing a list of products
+     * @param page      the page number (0-based)
+     * @param size      the page size
+     * @param total     how totals are reported: {@code exact}, {@code estimated}
+     *                  or {@code none}
+     * @param minPrice  the lowest price to include
+     * @param maxPrice  the highest price to include
+     * @param sort      the sort field: {@code id}, {@code price} or {@code name}
+     * @param direction the sort direction: {@code asc} or {@code desc}
+     * @param request   the current request, checked for {@code If-None-Match}
+     * @return a {@link ResponseEntity} containing a list of products, or
+     *         {@code null} once a 304 response has been prepared
      */
     @GetMapping
     public ResponseEntity<PaginatedResponse<ProductResponse>> getProducts(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "estimated") String total,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            WebRequest request) {
+        ProductQuery query = ProductQuery.of(minPrice, maxPrice, sort, direction);
+        TotalMode totalMode = TotalMode.from(total);
+        String etag = service.catalogETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(service.getAllProducts(page, size, totalMode, query));
+    }
+
+    /**
+     * Retrieves products using keyset (cursor) pagination.
+     * <p>
+     * Selected whenever the {@code after} parameter is present; pass it empty
+     * for the first page and then the {@code nextCursor} of each response,
+     * keeping the same filter and sort order on every page.
+     * </p>
+     *
+     * @param after     the opaque cursor of the previous page
+     * @param size      the page size
+     * @param minPrice  the lowest price to include
+     * @param maxPrice  the highest price to include
+     * @param sort      the sort field: {@code id}, {@code price} or {@code name}
+     * @param direction the sort direction: {@code asc} or {@code desc}
+     * @param request   the current request, checked for {@code If-None-Match}
+     * @return a {@link ResponseEntity} containing the page and the next cursor,
+     *         or {@code null} once a 304 response has been prepared
+     */
+    @GetMapping(params = { "after", "!ids" })
+    public ResponseEntity<CursorPageResponse<ProductResponse>> getProductsAfter(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            WebRequest request) {
+        ProductQuery query = ProductQuery.of(minPrice, maxPrice, sort, direction);
+        String etag = service.catalogETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(service.getProductsAfter(after, size, query));
+    }
+
+    /**
+     * Retrieves several products in one request, e.g.
+     * {@code GET /products?ids=1,2,3}.
+     *
+     * @param ids the IDs of the products to retrieve
+     * @return a {@link ResponseEntity} with the products in request order and
+     *         the ids that were not found
+     */
+    @GetMapping(params = { "ids", "!after" })
+    public ResponseEntity<ProductBatchResponse> getBatch(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(service.getBatch(ids));
+    }
+
+    /**
+     * Rejects a request that asks for both a batch of ids and a keyset page,
+     * which would otherwise match two handlers.
+     *
+     * @throws AppException with {@code ERR-215}, always
+     */
+    @GetMapping(params = { "ids", "after" })
+    public ResponseEntity<Void> rejectBatchWithCursor() {
+        throw new AppException("ERR-215");
+    }
+
+    /**
+     * Searches products by name.
+     * <p>
+     * Served from an in-memory index: each term matches whole words, word
+     * prefixes, or text inside words of three or more characters, and every
+     * term must match.
+     * </p>
+     *
+     * @param q    the search terms
+     * @param page the page number (0-based)
+     * @param size the page size
+     * @return a {@link ResponseEntity} with the best matches first
+     */
+    @GetMapping(ApiEndPointConstants.SEARCH)
+    public ResponseEntity<PaginatedResponse<ProductResponse>> search(@RequestParam String q,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(service.getAllProducts(page, size));
+        return ResponseEntity.ok(searchIndex.search(q, page, size));
+    }
+
+    /**
+     * Suggests product names for a typed prefix.
+     *
+     * @param prefix the text typed so far, matched case-insensitively
+     * @param limit  the maximum number of suggestions
+     * @return a {@link ResponseEntity} with matching names in alphabetical order
+     */
+    @GetMapping(ApiEndPointConstants.AUTOCOMPLETE)
+    public ResponseEntity<List<String>> autocomplete(@RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(autocompleteService.complete(prefix, limit));
+    }
+
+    /**
+     * Streams the whole catalog as NDJSON or CSV.
+     * <p>
+     * The body is written as products are read from the database, so the
+     * response starts immediately and memory use does not depend on the size
+     * of the catalog.
+     * </p>
+     *
+     * @param format the output format: {@code ndjson} or {@code csv}
+     * @return a {@link ResponseEntity} streaming every product
+     */
+    @GetMapping(ApiEndPointConstants.EXPORT)
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        CatalogFormat catalogFormat = CatalogFormat.from(format);
+        MediaType mediaType = catalogFormat == CatalogFormat.CSV
+                ? new MediaType("text", "csv")
+                : MediaType.APPLICATION_NDJSON;
+
+        StreamingResponseBody body = out -> exportService.export(catalogFormat, out);
+
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"products." + catalogFormat.name().toLowerCase(Locale.ROOT) + "\"")
+                .body(body);
+    }
+
+    /**
+     * Reports hit, miss and eviction statistics of the product caches.
+     *
+     * @return a {@link ResponseEntity} with one entry per cache
+     */
+    @GetMapping(ApiEndPointConstants.CACHE_STATS)
+    public ResponseEntity<List<CacheStatsResponse>> cacheStats() {
+        return ResponseEntity.ok(service.cacheStats());
     }
 
     /**
      * Retrieves a single product by its identifier.
+     * <p>
+     * The response carries the product version as its {@code ETag}; when it
+     * matches {@code If-None-Match}, Spring answers {@code 304 Not Modified}
+     * without serializing the body.
+     * </p>
      *
      * @param id the ID of the product to retrieve
      * @return a {@link ResponseEntity} with the product details
      */
     @GetMapping("/{id}")
     public ResponseEntity<ProductResponse> get(@PathVariable Long id) {
-        return ResponseEntity.ok(service.get(id));
+        ProductResponse product = service.get(id);
+        return ResponseEntity.ok().eTag(etag(product)).body(product);
     }
 
     /**
      * Updates an existing product.
+     * <p>
+     * With {@code If-Match}, the update only applies if the product still has
+     * the given {@code ETag}; otherwise it is rejected with
+     * {@code 412 Precondition Failed}.
+     * </p>
      *
-     * @param id  the ID of the product to update
-     * @param req the updated product data
+     * @param id      the ID of the product to update
+     * @param req     the updated product data
+     * @param ifMatch the {@code ETag} the client last saw, if any
      * @return a {@link ResponseEntity} with the updated product information
+     *         and its new {@code ETag}
      */
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponse> update(@PathVariable Long id,
-            @Valid @RequestBody ProductRequest req) {
-        return ResponseEntity.ok(service.update(id, req));
+            @Valid @RequestBody ProductRequest req,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductResponse product = service.update(id, req, expectedVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(etag(product)).body(product);
     }
 
     /**
      * Deletes a product by its identifier.
+     * <p>
+     * With {@code If-Match}, the product is only deleted if it still has the
+     * given {@code ETag}; otherwise the request is rejected with
+     * {@code 412 Precondition Failed}.
+     * </p>
      *
-     * @param id the ID of the product to delete
+     * @param id      the ID of the product to delete
+     * @param ifMatch the {@code ETag} the client last saw, if any
      * @return a {@link ResponseEntity} with no content
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
-        service.delete(id);
+    public ResponseEntity<Void> delete(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        service.delete(id, expectedVersion(id, ifMatch));
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Creates many products in one request.
+     * <p>
+     * Each item is validated on its own; invalid items are reported in the
+     * response while the valid ones are inserted in JDBC batches.
+     * </p>
+     *
+     * @param reqs the products to create
+     * @return a {@link ResponseEntity} with the outcome of every item
+     */
+    @PostMapping(ApiEndPointConstants.BULK)
+    public ResponseEntity<BulkResponse> createAll(@RequestBody List<ProductRequest> reqs) {
+        return ResponseEntity.ok(bulkService.createAll(reqs));
+    }
+
+    /**
+     * Updates many products in one request.
+     *
+     * @param reqs the products to update, identified by id
+     * @return a {@link ResponseEntity} with the outcome of every item
+     */
+    @PutMapping(ApiEndPointConstants.BULK)
+    public ResponseEntity<BulkResponse> updateAll(@RequestBody List<ProductBulkUpdateRequest> reqs) {
+        return ResponseEntity.ok(bulkService.updateAll(reqs));
+    }
+
+    /**
+     * Deletes many products in one request.
+     *
+     * @param ids the IDs of the products to delete
+     * @return a {@link ResponseEntity} with the outcome of every item
+     */
+    @DeleteMapping(ApiEndPointConstants.BULK)
+    public ResponseEntity<BulkResponse> deleteAll(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(bulkService.deleteAll(ids));
+    }
+
+    /**
+     * Imports products from an NDJSON or CSV upload sent as the raw request
+     * body.
+     * <p>
+     * The body is read line by line and written in batches, so uploads of any
+     * size can be imported without buffering them in memory.
+     * </p>
+     *
+     * @param format the input format: {@code ndjson} or {@code csv}
+     * @param body   the uploaded file contents
+     * @return a {@link ResponseEntity} with the import summary
+     * @throws IOException if reading the request body fails
+     */
+    @PostMapping(ApiEndPointConstants.IMPORT)
+    public ResponseEntity<ImportSummary> importProducts(@RequestParam(defaultValue = "ndjson") String format,
+            InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkService.importProducts(CatalogFormat.from(format), body));
+    }
+
+    /**
+     * Reads the expected product version from an {@code If-Match} header.
+     *
+     * @return the version, or {@code null} if the header is absent or {@code *}
+     * @throws AppException with {@code ERR-214} (412) if the header holds no
+     *                      strong tag of this product
+     */
+    private static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        String prefix = "\"" + id + ".";
+        if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+            try {
+                return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+            } catch (NumberFormatException ex) {
+                // falls through to the precondition failure
+            }
+        }
+        throw new AppException("ERR-214", HttpStatus.PRECONDITION_FAILED);
+    }
+
+    private static String etag(ProductResponse product) {
+        return product.version() == null ? null : "\"" + product.id() + "." + product.version() + "\"";
+    }
 }
@@ -0,0 +1,34 @@
+package com.noosyn.onboarding.dto.auth_dto;
+
+/**
+ * Response DTO with the load of the password hashing pool.
+ *
+ * @param threads       the number of hashing threads
+ * @param activeThreads the number of threads currently hashing
+ * @param queueDepth    the number of calls waiting for a thread
+ * @param queueCapacity the maximum number of waiting calls
+ * @param completed     the number of finished calls
+ * @param rejected      the number of calls rejected because the queue was full
+ *                      or they could not have finished within the timeout
+ * @param timedOut      the number of calls that failed after the timeout
+ * @param abandoned     the timed-out calls that had already started and kept
+ *                      running on the pool
+ * @param averageWaitMs the mean time calls spent in the queue, in milliseconds
+ * @param maxWaitMs     the longest time a call spent in the queue recently, in
+ *                      milliseconds; the {@code auth.hashing.wait} timer
+ *                      decays it over its rolling window
+ * @param averageHashMs the mean time of a hash or check, in milliseconds
+ */
+public record PasswordHashingStats(
+        int threads,
+        int activeThreads,
+        int queueDepth,
+        int queueCapacity,
+        long completed,
+        long rejected,
+        long timedOut,
+        long abandoned,
+        double averageWaitMs,
+        double maxWaitMs,
+        double averageHashMs) {
+}
@@ -0,0 +1,28 @@
+package com.noosyn.onboarding.dto.product_dto;
+
+/**
+ * Outcome of a single item in a bulk product request.
+ *
+ * @param index     the position of the item in the request array
+ * @param id        the ID of the product, or {@code null} if none was assigned
+ * @param status    the outcome of the item
+ * @param errorCode the error code from {@code messages.properties} when the
+ *                  item failed, otherwise {@code null}
+ */
+public record BulkItemResult(int index, Long id, Status status, String errorCode) {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        FAILED
+    }
+
+    public static BulkItemResult success(int index, Long id, Status status) {
+        return new BulkItemResult(index, id, status, null);
+    }
+
+    public static BulkItemResult failure(int index, Long id, String errorCode) {
+        return new BulkItemResult(index, id, Status.FAILED, errorCode);
+    }
+}
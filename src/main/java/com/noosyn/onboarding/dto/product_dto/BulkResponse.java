@@ -0,0 +1,35 @@
+package com.noosyn.onboarding.dto.product_dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for bulk product create, update and delete requests.
+ * <p>
+ * Items are processed independently: a failed item does not prevent the
+ * others from being written. {@code results} holds one entry per request item,
+ * in request order.
+ * </p>
+ *
+ * @param succeeded the number of items written
+ * @param failed    the number of items rejected
+ * @param results   the per-item outcomes
+ */
+public record BulkResponse(
+        int succeeded,
+        int failed,
+        List<BulkItemResult> results) {
+
+    /**
+     * Builds a response from per-item results, counting successes and
+     * failures.
+     *
+     * @param results the per-item outcomes in request order
+     * @return the bulk response
+     */
+    public static BulkResponse of(List<BulkItemResult> results) {
+        int failed = (int) results.stream()
+                .filter(r -> r.status() == BulkItemResult.Status.FAILED)
+                .count();
+        return new BulkResponse(results.size() - failed, failed, results);
+    }
+}
@@ -0,0 +1,20 @@
+package com.noosyn.onboarding.dto.product_dto;
+
+/**
+ * Response DTO with the statistics of one in-memory cache.
+ *
+ * @param name      the name of the cache
+ * @param size      the approximate number of cached entries
+ * @param hits      the number of lookups served from the cache
+ * @param misses    the number of lookups that had to load the value
+ * @param hitRate   the fraction of lookups served from the cache
+ * @param evictions the number of entries evicted for size or age
+ */
+public record CacheStatsResponse(
+        String name,
+        long size,
+        long hits,
+        long misses,
+        double hitRate,
+        long evictions) {
+}
@@ -0,0 +1,33 @@
+package com.noosyn.onboarding.dto.product_dto;
+
+import java.util.Locale;
+
+import com.noosyn.onboarding.exception.AppException;
+
+/**
+ * File formats supported by the product catalog export and import.
+ * <ul>
+ * <li>{@code NDJSON} – one JSON product object per line</li>
+ * <li>{@code CSV} – a {@code name,price} or {@code id,name,price} header
+ * followed by one product per line</li>
+ * </ul>
+ */
+public enum CatalogFormat {
+    NDJSON,
+    CSV;
+
+    /**
+     * Parses a request parameter value, ignoring case.
+     *
+     * @param value the parameter value, e.g. {@code "csv"}
+     * @return the matching format
+     * @throws AppException with {@code ERR-208} if the value is unknown
+     */
+    public static CatalogFormat from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new AppException("ERR-208");
+        }
+    }
+}
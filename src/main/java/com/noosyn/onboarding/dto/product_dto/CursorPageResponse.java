@@ -0,0 +1,20 @@
+package com.noosyn.onboarding.dto.product_dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for keyset (cursor) pagination.
+ * <p>
+ * Unlike {@link PaginatedResponse}, it carries no page number or totals. The
+ * client passes {@code nextCursor} back as the {@code after} parameter to fetch
+ * the following page, so the cost of a page does not depend on its depth.
+ * </p>
+ *
+ * @param items      the items on this page
+ * @param nextCursor opaque cursor of the next page, or {@code null} if this is
+ *                   the last page
+ */
+public record CursorPageResponse<T>(
+        List<T> items,
+        String nextCursor) {
+}
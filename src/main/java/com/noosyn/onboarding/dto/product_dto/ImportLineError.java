@@ -0,0 +1,10 @@
+package com.noosyn.onboarding.dto.product_dto;
+
+/**
+ * A line of a product import that could not be imported.
+ *
+ * @param line      the 1-based line number in the uploaded file
+ * @param errorCode the error code from {@code messages.properties}
+ * @param message   the resolved error message
+ */
+public record ImportLineError(long line, String errorCode, String message) {}
@@ -0,0 +1,25 @@
+package com.noosyn.onboarding.dto.product_dto;
+
+import java.util.List;
+
+/**
+ * Response DTO summarising a streaming product import.
+ * <p>
+ * Only the first {@code products.import.maxReportedErrors} failed lines are
+ * listed, so the summary stays small however many lines fail;
+ * {@code failed} always holds the full count.
+ * </p>
+ *
+ * @param processed       the number of non-blank data lines read
+ * @param imported        the number of products created
+ * @param failed          the number of lines rejected
+ * @param errors          the first rejected lines with their error codes
+ * @param errorsTruncated whether more lines failed than are listed
+ */
+public record ImportSummary(
+        long processed,
+        long imported,
+        long failed,
+        List<ImportLineError> errors,
+        boolean errorsTruncated) {
+}
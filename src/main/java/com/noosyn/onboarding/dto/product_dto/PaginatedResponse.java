@@ -2,9 +2,36 @@ package com.noosyn.onboarding.dto.product_dto;
 
 import java.util.List;
 
+/**
+ * Response DTO for offset-based pagination.
+ * <p>
+ * {@code totalItems} and {@code totalPages} are exact or estimated depending
+ * on the requested {@link TotalMode}, and {@code null} when totals were not
+ * requested. {@code hasNext} is always exact.
+ * </p>
+ *
+ * @param items       the items on this page
+ * @param currentPage the page number (0-based)
+ * @param totalItems  the total number of items, or {@code null}
+ * @param totalPages  the total number of pages, or {@code null}
+ * @param hasNext     whether another page follows this one
+ */
 public record PaginatedResponse<T>(
         List<T> items,
         int currentPage,
-        long totalItems,
-        int totalPages) {
+        Long totalItems,
+        Integer totalPages,
+        boolean hasNext) {
+
+    /**
+     * Creates a response with exact totals.
+     *
+     * @param items       the items on this page
+     * @param currentPage the page number (0-based)
+     * @param totalItems  the total number of items
+     * @param totalPages  the total number of pages
+     */
+    public PaginatedResponse(List<T> items, int currentPage, long totalItems, int totalPages) {
+        this(items, currentPage, totalItems, totalPages, currentPage + 1 < totalPages);
+    }
 }
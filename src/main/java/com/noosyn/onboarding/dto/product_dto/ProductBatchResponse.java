@@ -0,0 +1,19 @@
+package com.noosyn.onboarding.dto.product_dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for a batch read of products by id.
+ * <p>
+ * Items are returned in the order the ids were requested; ids without a
+ * matching product are listed in {@code missingIds} instead of failing the
+ * whole request.
+ * </p>
+ *
+ * @param items      the products found, in request order
+ * @param missingIds the requested ids that do not exist
+ */
+public record ProductBatchResponse(
+        List<ProductResponse> items,
+        List<Long> missingIds) {
+}
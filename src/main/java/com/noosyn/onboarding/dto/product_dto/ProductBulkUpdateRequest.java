@@ -0,0 +1,29 @@
+package com.noosyn.onboarding.dto.product_dto;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Request DTO for one item of a bulk product update.
+ * <p>
+ * Same rules as {@link ProductRequest}, plus the id of the product to update.
+ * </p>
+ *
+ * @param id    the ID of the product to update
+ * @param name  the new name of the product
+ * @param price the new price of the product
+ */
+public record ProductBulkUpdateRequest(
+    @NotNull(message = "ERR-200")
+    Long id,
+
+    @NotBlank(message = "ERR-200")
+    String name,
+
+    @NotNull(message = "ERR-200")
+    @DecimalMin(value = "0.0", inclusive = true, message = "ERR-200")
+    BigDecimal price
+) {}
@@ -0,0 +1,77 @@
+package com.noosyn.onboarding.dto.product_dto;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+import com.noosyn.onboarding.exception.AppException;
+
+/**
+ * Filter and sort order of a product listing.
+ *
+ * @param minPrice   the lowest price to include, or {@code null} for no lower bound
+ * @param maxPrice   the highest price to include, or {@code null} for no upper bound
+ * @param sort       the field to sort by
+ * @param descending whether to sort in descending order
+ */
+public record ProductQuery(
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        ProductSort sort,
+        boolean descending) {
+
+    /** All products in ascending id order. */
+    public static final ProductQuery DEFAULT = new ProductQuery(null, null, ProductSort.ID, false);
+
+    /**
+     * Creates a query, defaulting to sorting by id.
+     *
+     * @throws AppException with {@code ERR-213} if {@code minPrice} is greater
+     *                      than {@code maxPrice}
+     */
+    public ProductQuery {
+        if (sort == null) {
+            sort = ProductSort.ID;
+        }
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new AppException("ERR-213");
+        }
+    }
+
+    /**
+     * Builds a query from request parameters.
+     *
+     * @param minPrice  the lowest price to include, or {@code null}
+     * @param maxPrice  the highest price to include, or {@code null}
+     * @param sort      the sort field: {@code id}, {@code price} or {@code name}
+     * @param direction the sort direction: {@code asc} or {@code desc}
+     * @return the query
+     * @throws AppException with {@code ERR-212} if the sort field or direction is
+     *                      unknown, or {@code ERR-213} if the price range is empty
+     */
+    public static ProductQuery of(BigDecimal minPrice, BigDecimal maxPrice, String sort, String direction) {
+        boolean descending = switch (direction.trim().toLowerCase(Locale.ROOT)) {
+            case "asc" -> false;
+            case "desc" -> true;
+            default -> throw new AppException("ERR-212");
+        };
+        return new ProductQuery(minPrice, maxPrice, ProductSort.from(sort), descending);
+    }
+
+    /**
+     * Returns whether the query restricts the price.
+     *
+     * @return {@code true} if a price bound is set
+     */
+    public boolean isFiltered() {
+        return minPrice != null || maxPrice != null;
+    }
+
+    /**
+     * Returns whether this is the unfiltered ascending id order.
+     *
+     * @return {@code true} if the query equals {@link #DEFAULT}
+     */
+    public boolean isDefault() {
+        return equals(DEFAULT);
+    }
+}
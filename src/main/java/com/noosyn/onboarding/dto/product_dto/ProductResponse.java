@@ -5,12 +5,25 @@ import java.math.BigDecimal;
 /**
  * Response DTO representing product information returned to the client.
  * <p>
- * Includes the product's identifier, name, and price. Used to ensure
+ * Includes the product's identifier, name, price and version. Used to ensure
  * API responses remain stable and decoupled from internal entity models.
  * </p>
  *
- * @param id    the unique identifier of the product
- * @param name  the name of the product
- * @param price the price of the product, represented as {@link BigDecimal}
+ * @param id      the unique identifier of the product
+ * @param name    the name of the product
+ * @param price   the price of the product, represented as {@link BigDecimal}
+ * @param version the version of the product, incremented on every update
  */
-public record ProductResponse(Long id, String name, BigDecimal price) {}
+public record ProductResponse(Long id, String name, BigDecimal price, Long version) {
+
+    /**
+     * Creates a response without a version.
+     *
+     * @param id    the unique identifier of the product
+     * @param name  the name of the product
+     * @param price the price of the product
+     */
+    public ProductResponse(Long id, String name, BigDecimal price) {
+        this(id, name, price, null);
+    }
+}
@@ -0,0 +1,49 @@
+package com.noosyn.onboarding.dto.product_dto;
+
+import java.util.Locale;
+
+import com.noosyn.onboarding.exception.AppException;
+
+/**
+ * Fields product listings can be sorted by.
+ * <p>
+ * Sorting by a field other than the id always uses the id as a tie-breaker,
+ * which keeps the order stable and lets keyset pagination resume exactly
+ * where the previous page ended.
+ * </p>
+ */
+public enum ProductSort {
+    ID("id"),
+    PRICE("price"),
+    NAME("name");
+
+    private final String attribute;
+
+    ProductSort(String attribute) {
+        this.attribute = attribute;
+    }
+
+    /**
+     * Returns the name of the {@code Product} attribute sorted on.
+     *
+     * @return the entity attribute name
+     */
+    public String attribute() {
+        return attribute;
+    }
+
+    /**
+     * Parses a request parameter value, ignoring case.
+     *
+     * @param value the parameter value, e.g. {@code "price"}
+     * @return the matching sort field
+     * @throws AppException with {@code ERR-212} if the value is unknown
+     */
+    public static ProductSort from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new AppException("ERR-212");
+        }
+    }
+}
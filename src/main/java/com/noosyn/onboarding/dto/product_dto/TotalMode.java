@@ -0,0 +1,35 @@
+package com.noosyn.onboarding.dto.product_dto;
+
+import java.util.Locale;
+
+import com.noosyn.onboarding.exception.AppException;
+
+/**
+ * How the total number of products is reported on an offset-paginated listing.
+ * <ul>
+ * <li>{@code EXACT} – runs a {@code COUNT(*)} query alongside the page</li>
+ * <li>{@code ESTIMATED} – uses a cached count kept up to date in memory</li>
+ * <li>{@code NONE} – skips totals and only reports whether a next page
+ * exists</li>
+ * </ul>
+ */
+public enum TotalMode {
+    EXACT,
+    ESTIMATED,
+    NONE;
+
+    /**
+     * Parses a request parameter value, ignoring case.
+     *
+     * @param value the parameter value, e.g. {@code "exact"}
+     * @return the matching mode
+     * @throws AppException with {@code ERR-204} if the value is unknown
+     */
+    public static TotalMode from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new AppException("ERR-204");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.noosyn.onboarding.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single-row counter of committed catalog changes.
+ * <p>
+ * Incremented once by every transaction that creates, updates or deletes
+ * products, so all application instances agree on its value and it only
+ * changes on writes. Listing entity tags are derived from it.
+ * </p>
+ *
+ * <p>Fields include:</p>
+ * <ul>
+ *   <li>{@code id} – Primary key, always {@link #ID}</li>
+ *   <li>{@code revision} – Number of committed catalog changes</li>
+ * </ul>
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogRevision {
+
+    /**
+     * Id of the only row.
+     */
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    private long revision;
+}
@@ -6,6 +6,10 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -24,9 +28,27 @@ import lombok.Setter;
  *   <li>{@code id} – Primary key</li>
  *   <li>{@code name} – Display name of the product</li>
  *   <li>{@code price} – Monetary price of the product</li>
+ *   <li>{@code version} – Optimistic locking version</li>
  * </ul>
+ *
+ * <p>
+ * The {@code (price, id)} and {@code (name, id)} indexes serve listings
+ * filtered by price or sorted by price or name, including their keyset
+ * pagination, which orders by the sort field and then by id.
+ * </p>
+ *
+ * <p>
+ * Products are deliberately not in the second-level cache: reads select DTO
+ * projections, which bypass it, and are cached in {@code ProductCache}
+ * instead, while the bulk JPQL writes would evict the whole region on every
+ * update or delete.
+ * </p>
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_product_price_id", columnList = "price, id"),
+        @Index(name = "idx_product_name_id", columnList = "name, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -34,14 +56,22 @@ import lombok.Setter;
 @Builder
 public class Product {
 
+    /**
+     * Number of ids reserved per round-trip to {@code product_seq}.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     /**
      * Primary key identifier for the product.
      * <p>
-     * Generated automatically using the identity strategy.
+     * Generated from the pooled {@code product_seq} sequence. Unlike an
+     * identity column, this lets Hibernate assign ids before inserting and
+     * therefore batch inserts over JDBC.
      * </p>
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
@@ -56,4 +86,13 @@ public class Product {
      * </p>
      */
     private BigDecimal price;
+
+    /**
+     * Optimistic locking version, incremented by Hibernate on every update.
+     * <p>
+     * Also identifies the state of the product in its HTTP entity tag.
+     * </p>
+     */
+    @Version
+    private long version;
 }
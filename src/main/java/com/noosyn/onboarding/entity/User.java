@@ -1,11 +1,19 @@
 package com.noosyn.onboarding.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.noosyn.onboarding.utils.UserChangeListener;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -27,12 +35,21 @@ import lombok.Setter;
  * <li>{@code username} – Unique username used for login</li>
  * <li>{@code password} – Encrypted password</li>
  * <li>{@code role} – User role (e.g., {@code "USER"}, {@code "ADMIN"})</li>
+ * <li>{@code version} – User version embedded in issued JWT tokens</li>
  * </ul>
  *
  * Lombok annotations generate boilerplate code such as getters, setters,
  * constructors, and builder pattern implementation.
+ *
+ * <p>
+ * Users are kept in the {@code user} second-level cache region with the
+ * read-write strategy, so a changed password or role is never served stale.
+ * </p>
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@EntityListeners(UserChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -68,4 +85,14 @@ public class User {
      */
     @Enumerated(EnumType.STRING)
     private Role role;
+
+    /**
+     * Version of the user record, incremented by JPA on every update.
+     * <p>
+     * Tokens carry the version they were issued for, so changing a user's
+     * password or role makes previously issued tokens stale.
+     * </p>
+     */
+    @Version
+    private long version;
 }
@@ -1,13 +1,21 @@
 package com.noosyn.onboarding.exception;
 
+import org.springframework.http.HttpStatus;
+
 import lombok.Getter;
 
 @Getter
 public class AppException extends RuntimeException {
     private final String errorCode;
+    private final HttpStatus status;
 
     public AppException(String errorCode) {
+        this(errorCode, HttpStatus.BAD_REQUEST);
+    }
+
+    public AppException(String errorCode, HttpStatus status) {
         super(errorCode);
         this.errorCode = errorCode;
+        this.status = status;
     }
 }
@@ -38,7 +38,7 @@ public class GlobalExceptionHandler {
 
         ApiErrorResponse body = new ApiErrorResponse(ex.getErrorCode(), errorMessage, LocalDateTime.now());
 
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+        return ResponseEntity.status(ex.getStatus()).body(body);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
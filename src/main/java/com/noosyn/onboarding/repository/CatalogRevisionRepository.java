@@ -0,0 +1,39 @@
+package com.noosyn.onboarding.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.noosyn.onboarding.entity.CatalogRevision;
+
+/**
+ * Repository interface for the {@link CatalogRevision} counter.
+ */
+public interface CatalogRevisionRepository extends JpaRepository<CatalogRevision, Long> {
+
+    /**
+     * Reads the current catalog revision.
+     *
+     * @return the revision, or empty if the counter row has not been created
+     */
+    @Query("select c.revision from CatalogRevision c where c.id = " + CatalogRevision.ID)
+    Optional<Long> findRevision();
+
+    /**
+     * Increments the catalog revision in the caller's transaction, or in a
+     * new one if there is none.
+     * <p>
+     * The row stays locked until the transaction ends, so concurrent writers
+     * are serialized on it only for the time of their commit.
+     * </p>
+     *
+     * @return the number of updated rows: 1, or 0 if the counter row does not exist
+     */
+    @Modifying
+    @Transactional
+    @Query("update CatalogRevision c set c.revision = c.revision + 1 where c.id = " + CatalogRevision.ID)
+    int increment();
+}
@@ -0,0 +1,64 @@
+package com.noosyn.onboarding.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.noosyn.onboarding.dto.product_dto.ProductQuery;
+import com.noosyn.onboarding.dto.product_dto.ProductResponse;
+import com.noosyn.onboarding.entity.Product;
+
+/**
+ * Repository fragment for product listings with a price filter and a sort
+ * order chosen by the client.
+ * <p>
+ * Every query orders by the sort field and then by id, matching the
+ * {@code (price, id)} and {@code (name, id)} indexes on {@link Product}, so
+ * price bounds and keyset seeks resolve to index range scans. Rows are
+ * selected straight into {@link ProductResponse} in read-only transactions.
+ * </p>
+ */
+public interface ProductQueryRepository {
+
+    /**
+     * Retrieves a page of matching products without counting them.
+     *
+     * @param query    the filter and sort order
+     * @param pageable the page to retrieve; its sort is ignored
+     * @return the requested slice of products
+     */
+    @Transactional(readOnly = true)
+    Slice<ProductResponse> findSlice(ProductQuery query, Pageable pageable);
+
+    /**
+     * Counts the products matching the filter of a query.
+     *
+     * @param query the filter; its sort order is ignored
+     * @return the number of matching products
+     */
+    @Transactional(readOnly = true)
+    long countMatching(ProductQuery query);
+
+    /**
+     * Retrieves the matching products that follow a position in the sort
+     * order.
+     * <p>
+     * Translates to e.g. {@code WHERE price > ? OR (price = ? AND id > ?)
+     * ORDER BY price, id LIMIT ?}, which seeks on the index instead of
+     * skipping rows with an offset.
+     * </p>
+     *
+     * @param query     the filter and sort order
+     * @param lastValue the sort value of the last row already returned; ignored
+     *                  when sorting by id
+     * @param lastId    the id of the last row already returned, or {@code null}
+     *                  for the first page
+     * @param limit     the maximum number of rows to return
+     * @return the next products in sort order
+     */
+    @Transactional(readOnly = true)
+    List<ProductResponse> findAfter(ProductQuery query, Object lastValue, Long lastId, Limit limit);
+}
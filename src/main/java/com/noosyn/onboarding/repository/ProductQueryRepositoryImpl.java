@@ -0,0 +1,137 @@
+package com.noosyn.onboarding.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import com.noosyn.onboarding.dto.product_dto.ProductQuery;
+import com.noosyn.onboarding.dto.product_dto.ProductResponse;
+import com.noosyn.onboarding.dto.product_dto.ProductSort;
+import com.noosyn.onboarding.entity.Product;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Criteria API implementation of {@link ProductQueryRepository}.
+ * <p>
+ * Picked up by Spring Data through the {@code Impl} suffix and merged into
+ * {@link ProductRepository}.
+ * </p>
+ */
+@RequiredArgsConstructor
+public class ProductQueryRepositoryImpl implements ProductQueryRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Slice<ProductResponse> findSlice(ProductQuery query, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductResponse> cq = cb.createQuery(ProductResponse.class);
+        Root<Product> p = cq.from(Product.class);
+        cq.select(response(cb, p))
+                .where(priceRange(cb, p, query).toArray(Predicate[]::new))
+                .orderBy(orderBy(cb, p, query));
+
+        int size = pageable.getPageSize();
+        List<ProductResponse> rows = entityManager.createQuery(cq)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(size + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public long countMatching(ProductQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Product> p = cq.from(Product.class);
+        cq.select(cb.count(p)).where(priceRange(cb, p, query).toArray(Predicate[]::new));
+
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+
+    @Override
+    public List<ProductResponse> findAfter(ProductQuery query, Object lastValue, Long lastId, Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductResponse> cq = cb.createQuery(ProductResponse.class);
+        Root<Product> p = cq.from(Product.class);
+        cq.select(response(cb, p));
+
+        List<Predicate> where = priceRange(cb, p, query);
+        if (lastId != null) {
+            where.add(after(cb, p, query, lastValue, lastId));
+        }
+        cq.where(where.toArray(Predicate[]::new)).orderBy(orderBy(cb, p, query));
+
+        return entityManager.createQuery(cq)
+                .setMaxResults(limit.max())
+                .getResultList();
+    }
+
+    /**
+     * Selects the response fields directly, so no entities are created.
+     */
+    private static CompoundSelection<ProductResponse> response(CriteriaBuilder cb, Root<Product> p) {
+        return cb.construct(ProductResponse.class, p.get("id"), p.get("name"), p.get("price"), p.get("version"));
+    }
+
+    private static List<Predicate> priceRange(CriteriaBuilder cb, Root<Product> p, ProductQuery query) {
+        List<Predicate> predicates = new ArrayList<>();
+        Path<BigDecimal> price = p.get("price");
+        if (query.minPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(price, query.minPrice()));
+        }
+        if (query.maxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(price, query.maxPrice()));
+        }
+        return predicates;
+    }
+
+    private static List<Order> orderBy(CriteriaBuilder cb, Root<Product> p, ProductQuery query) {
+        List<Order> orders = new ArrayList<>(2);
+        if (query.sort() != ProductSort.ID) {
+            Path<Object> field = p.get(query.sort().attribute());
+            orders.add(query.descending() ? cb.desc(field) : cb.asc(field));
+        }
+        Path<Object> id = p.get("id");
+        orders.add(query.descending() ? cb.desc(id) : cb.asc(id));
+        return orders;
+    }
+
+    /**
+     * Builds the keyset predicate selecting the rows after the given position.
+     */
+    private static Predicate after(CriteriaBuilder cb, Root<Product> p, ProductQuery query,
+            Object lastValue, Long lastId) {
+        Path<Long> id = p.get("id");
+        Predicate idAfter = query.descending() ? cb.lessThan(id, lastId) : cb.greaterThan(id, lastId);
+
+        return switch (query.sort()) {
+            case ID -> idAfter;
+            case PRICE -> seek(cb, p.get("price"), (BigDecimal) lastValue, query.descending(), idAfter);
+            case NAME -> seek(cb, p.get("name"), (String) lastValue, query.descending(), idAfter);
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Predicate seek(CriteriaBuilder cb,
+            Expression<T> field, T value, boolean descending, Predicate idAfter) {
+        Predicate beyond = descending ? cb.lessThan(field, value) : cb.greaterThan(field, value);
+        return cb.or(beyond, cb.and(cb.equal(field, value), idAfter));
+    }
+}
@@ -1,9 +1,28 @@
 package com.noosyn.onboarding.repository;
 
+import java.util.Collection;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.noosyn.onboarding.dto.product_dto.ProductResponse;
 import com.noosyn.onboarding.entity.Product;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * Repository interface for performing CRUD operations on {@link Product} entities.
  * <p>
@@ -12,7 +31,170 @@ import com.noosyn.onboarding.entity.Product;
  * and querying products.
  * </p>
  *
- * <p>No implementation is required; Spring generates it at runtime.</p>
+ * <p>No implementation is required; Spring generates it at runtime. Filtered
+ * and sorted listings are implemented in {@link ProductQueryRepositoryImpl}.</p>
+ *
+ * <p>Read paths select straight into {@link ProductResponse} with constructor
+ * expressions, in read-only transactions. No {@link Product} entities are
+ * created, so Hibernate keeps neither first-level cache entries nor
+ * dirty-checking snapshots for them, and the session is never flushed.</p>
  */
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductQueryRepository {
+
+    /**
+     * Retrieves a product without loading the entity.
+     *
+     * @param id the product id
+     * @return the product, or empty if it does not exist
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.noosyn.onboarding.dto.product_dto.ProductResponse(p.id, p.name, p.price, p.version) "
+            + "from Product p where p.id = :id")
+    Optional<ProductResponse> findResponseById(@Param("id") Long id);
+
+    /**
+     * Retrieves several products without loading the entities.
+     *
+     * @param ids the product ids
+     * @return the products that exist, in no particular order
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.noosyn.onboarding.dto.product_dto.ProductResponse(p.id, p.name, p.price, p.version) "
+            + "from Product p where p.id in :ids")
+    List<ProductResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Retrieves a page of products in id order together with the total count.
+     *
+     * @param pageable the page to retrieve; its sort is ignored
+     * @return the requested page of products
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "select new com.noosyn.onboarding.dto.product_dto.ProductResponse(p.id, p.name, p.price, p.version) "
+            + "from Product p order by p.id",
+            countQuery = "select count(p) from Product p")
+    Page<ProductResponse> findResponsePage(Pageable pageable);
+
+    /**
+     * Retrieves a page of products in id order without counting all rows.
+     * <p>
+     * Returning a {@link Slice} instead of a {@code Page} makes Spring Data skip
+     * the {@code COUNT(*)} query and fetch one extra row to detect whether a
+     * next page exists.
+     * </p>
+     *
+     * @param pageable the page to retrieve; its sort is ignored
+     * @return the requested slice of products
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.noosyn.onboarding.dto.product_dto.ProductResponse(p.id, p.name, p.price, p.version) "
+            + "from Product p order by p.id")
+    Slice<ProductResponse> findResponseSlice(Pageable pageable);
+
+    /**
+     * Retrieves the products that follow the given id, in id order.
+     * <p>
+     * Translates to {@code WHERE id > ? ORDER BY id LIMIT ?}, which seeks on
+     * the primary key index instead of skipping rows with an offset.
+     * </p>
+     *
+     * @param id    the id of the last row already returned
+     * @param limit the maximum number of rows to return
+     * @return the next products in ascending id order
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.noosyn.onboarding.dto.product_dto.ProductResponse(p.id, p.name, p.price, p.version) "
+            + "from Product p where p.id > :id order by p.id")
+    List<ProductResponse> findResponsesAfterId(@Param("id") Long id, Limit limit);
+
+    /**
+     * Returns which of the given ids belong to existing products.
+     *
+     * @param ids the ids to check
+     * @return the subset of {@code ids} that exist
+     */
+    @Query("select p.id from Product p where p.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Returns the current version of a product without loading it.
+     *
+     * @param id the product id
+     * @return the version, or empty if the product does not exist
+     */
+    @Query("select p.version from Product p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Overwrites a product and increments its version in a single
+     * {@code UPDATE}, without loading the entity first. Must run inside a
+     * transaction.
+     *
+     * @param id    the product id
+     * @param name  the new name
+     * @param price the new price
+     * @return the number of updated rows: 1, or 0 if the product does not exist
+     */
+    @Modifying
+    @Query("update Product p set p.name = :name, p.price = :price, p.version = p.version + 1 where p.id = :id")
+    int updateById(@Param("id") Long id, @Param("name") String name, @Param("price") BigDecimal price);
+
+    /**
+     * Overwrites a product only if it is still at the expected version, as
+     * {@code UPDATE ... WHERE id = ? AND version = ?}. Must run inside a
+     * transaction.
+     *
+     * @param id      the product id
+     * @param version the version the caller last saw
+     * @param name    the new name
+     * @param price   the new price
+     * @return the number of updated rows: 1, or 0 if the product does not
+     *         exist or has a different version
+     */
+    @Modifying
+    @Query("update Product p set p.name = :name, p.price = :price, p.version = p.version + 1 "
+            + "where p.id = :id and p.version = :version")
+    int updateByIdAndVersion(@Param("id") Long id, @Param("version") long version,
+            @Param("name") String name, @Param("price") BigDecimal price);
+
+    /**
+     * Deletes a product with a single {@code DELETE}, without loading it
+     * first. Must run inside a transaction.
+     *
+     * @param id the product id
+     * @return the number of deleted rows: 1, or 0 if the product does not exist
+     */
+    @Modifying
+    @Query("delete from Product p where p.id = :id")
+    int removeById(@Param("id") Long id);
+
+    /**
+     * Deletes a product only if it is still at the expected version. Must run
+     * inside a transaction.
+     *
+     * @param id      the product id
+     * @param version the version the caller last saw
+     * @return the number of deleted rows: 1, or 0 if the product does not
+     *         exist or has a different version
+     */
+    @Modifying
+    @Query("delete from Product p where p.id = :id and p.version = :version")
+    int removeByIdAndVersion(@Param("id") Long id, @Param("version") long version);
+
+    /**
+     * Streams all products in id order without creating entities.
+     * <p>
+     * Rows are read through a forward-only cursor, as the fetch size makes
+     * the driver stream them from the server instead of buffering the whole
+     * result, and are mapped straight to {@link ProductResponse}, so nothing
+     * accumulates in the persistence context. Must be consumed inside a
+     * transaction and closed afterwards.
+     * </p>
+     *
+     * @return a stream of all products
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.noosyn.onboarding.dto.product_dto.ProductResponse(p.id, p.name, p.price, p.version) "
+            + "from Product p order by p.id")
+    Stream<ProductResponse> streamResponses();
 }
@@ -2,10 +2,14 @@ package com.noosyn.onboarding.repository;
 
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.noosyn.onboarding.entity.User;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * Repository interface for managing {@link User} entities.
  * <p>
@@ -20,9 +24,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     /**
      * Retrieves a user by its username.
+     * <p>
+     * The result is kept in the {@code user-by-username} query cache region
+     * and the user itself in the entity cache, so repeated lookups do not
+     * reach the database. Hibernate discards cached results whenever the
+     * user table is written.
+     * </p>
      *
      * @param username the username to search for
      * @return an {@link Optional} containing the matching {@code User}, or empty if none found
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-by-username")
+    })
     Optional<User> findByUsername(String username);
 }
@@ -1,11 +1,11 @@
 package com.noosyn.onboarding.service;
 
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.noosyn.onboarding.dto.auth_dto.AuthResponse;
 import com.noosyn.onboarding.dto.auth_dto.LoginRequest;
+import com.noosyn.onboarding.dto.auth_dto.PasswordHashingStats;
 import com.noosyn.onboarding.dto.auth_dto.RegisterRequest;
 import com.noosyn.onboarding.entity.Role;
 import com.noosyn.onboarding.entity.User;
@@ -13,6 +13,7 @@ import com.noosyn.onboarding.exception.AppException;
 import com.noosyn.onboarding.repository.UserRepository;
 import com.noosyn.onboarding.utils.JwtUtils;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -20,16 +21,27 @@ import lombok.RequiredArgsConstructor;
  * including registration, login, and token generation.
  * <p>
  * This service interacts with the {@link UserRepository} for data
- * persistence, {@link PasswordEncoder} for password hashing, and
+ * persistence, {@link PasswordHasher} for password hashing, and
  * {@link JwtUtils} for issuing JWT authentication tokens.
  * </p>
+ *
+ * <p>
+ * Hashing runs on the bounded pool of {@link PasswordHasher}, so a burst of
+ * logins is rejected with 429 or 503 instead of starving other requests.
+ * </p>
+ *
+ * <p>
+ * Registration and login are timed as {@code auth.service}, tagged by method
+ * and exception, so failed logins ({@code AppException}) and rejected hashing
+ * calls can be told apart from successful ones.
+ * </p>
  */
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository repo;
-    private final PasswordEncoder encoder;
+    private final PasswordHasher hasher;
     private final JwtUtils jwt;
 
     /**
@@ -42,13 +54,14 @@ public class AuthService {
      * <li>Hashes the provided password</li>
      * <li>Creates a new {@link User} with the role {@code USER}</li>
      * <li>Saves the user to the database</li>
-     * <li>Generates a JWT token for the newly registered account</li>
+     * <li>Generates a JWT token carrying the user's role and version</li>
      * </ul>
      *
      * @param req the registration details including username and password
      * @return an {@link AuthResponse} containing the generated JWT token
      * @throws BadCredentialsException if the username is already in use
      */
+    @Timed(value = "auth.service", histogram = true)
     public AuthResponse register(RegisterRequest req) {
 
         if (repo.findByUsername(req.username()).isPresent()) {
@@ -57,7 +70,7 @@ public class AuthService {
 
         User user = User.builder()
                 .username(req.username())
-                .password(encoder.encode(req.password()))
+                .password(hasher.encode(req.password()))
                 .role(Role.USER)
                 .build();
 
@@ -70,7 +83,8 @@ public class AuthService {
                         .withUsername(user.getUsername())
                         .password(user.getPassword())
                         .roles(user.getRole().name())
-                        .build()));
+                        .build(),
+                user.getVersion()));
     }
 
     /**
@@ -85,11 +99,12 @@ public class AuthService {
      * @return an {@link AuthResponse} containing a valid JWT token
      * @throws BadCredentialsException if the credentials are invalid
      */
+    @Timed(value = "auth.service", histogram = true)
     public AuthResponse login(LoginRequest req) {
         User user = repo.findByUsername(req.username())
                 .orElseThrow(() -> new AppException("ERR-102"));
 
-        if (!encoder.matches(req.password(), user.getPassword())) {
+        if (!hasher.matches(req.password(), user.getPassword())) {
             throw new AppException("ERR-102");
         }
 
@@ -98,6 +113,16 @@ public class AuthService {
                         .withUsername(user.getUsername())
                         .password(user.getPassword())
                         .roles(user.getRole().name())
-                        .build()));
+                        .build(),
+                user.getVersion()));
+    }
+
+    /**
+     * Returns the load of the password hashing pool.
+     *
+     * @return the pool size, queue depth and wait times
+     */
+    public PasswordHashingStats hashingStats() {
+        return hasher.stats();
     }
 }
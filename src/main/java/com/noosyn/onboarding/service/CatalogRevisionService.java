@@ -0,0 +1,133 @@
+package com.noosyn.onboarding.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.noosyn.onboarding.entity.CatalogRevision;
+import com.noosyn.onboarding.repository.CatalogRevisionRepository;
+
+/**
+ * Maintains the persisted {@link CatalogRevision} counter.
+ * <p>
+ * The counter is incremented inside every transaction that publishes a
+ * {@link ProductChangedEvent}, just before it commits, so it becomes visible
+ * together with the change and is shared by all application instances. A
+ * bulk write that publishes one event per product increments it only once.
+ * </p>
+ *
+ * <p>
+ * The revision is kept in memory so that listing requests, including
+ * {@code 304} revalidations, do not query it. It is dropped after every
+ * commit of this instance that changed products, and re-read at least once
+ * per {@code products.cache.listings.ttl}, which bounds how long a write made
+ * by another instance goes unnoticed, as for the listing cache itself.
+ * </p>
+ */
+@Service
+public class CatalogRevisionService implements InitializingBean {
+
+    private final CatalogRevisionRepository repo;
+    private final long refreshNanos;
+
+    /** Incremented whenever the cached revision is dropped. */
+    private final AtomicLong invalidations = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public CatalogRevisionService(CatalogRevisionRepository repo,
+            @Value("${products.cache.listings.ttl:30s}") Duration refreshInterval) {
+        this.repo = repo;
+        this.refreshNanos = refreshInterval.toNanos();
+    }
+
+    /**
+     * Creates the counter row on first start.
+     * <p>
+     * Another instance starting at the same time may create it first, in
+     * which case the duplicate insert is ignored.
+     * </p>
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (repo.existsById(CatalogRevision.ID)) {
+            return;
+        }
+        try {
+            repo.save(new CatalogRevision(CatalogRevision.ID, 0));
+        } catch (DataIntegrityViolationException alreadyCreated) {
+            // created concurrently by another instance
+        }
+    }
+
+    /**
+     * Returns the catalog revision, reading it from the database only when
+     * the cached value has been dropped or is older than the refresh interval.
+     *
+     * @return the number of committed catalog changes
+     */
+    public long current() {
+        Snapshot cached = snapshot;
+        if (cached != null && System.nanoTime() - cached.readAt() < refreshNanos) {
+            return cached.revision();
+        }
+
+        long generation = invalidations.get();
+        long revision = repo.findRevision().orElse(0L);
+        snapshot = new Snapshot(revision, System.nanoTime());
+        // A commit during the read may not be included; do not keep the value
+        if (invalidations.get() != generation) {
+            snapshot = null;
+        }
+        return revision;
+    }
+
+    /**
+     * Drops the cached revision once a product change has committed, so the
+     * next read sees the increment.
+     *
+     * @param event the committed product change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChangeCommitted(ProductChangedEvent event) {
+        invalidations.incrementAndGet();
+        snapshot = null;
+    }
+
+    /**
+     * Increments the revision once per writing transaction, before it commits.
+     * <p>
+     * Events published outside of a transaction increment it immediately.
+     * </p>
+     *
+     * @param event the product change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            repo.increment();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CatalogRevisionService.this);
+            }
+        });
+        repo.increment();
+    }
+
+    private record Snapshot(long revision, long readAt) {
+    }
+}
@@ -1,5 +1,7 @@
 package com.noosyn.onboarding.service;
 
+import java.util.Optional;
+
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -8,6 +10,7 @@ import org.springframework.stereotype.Service;
 import com.noosyn.onboarding.entity.User;
 import com.noosyn.onboarding.exception.AppException;
 import com.noosyn.onboarding.repository.UserRepository;
+import com.noosyn.onboarding.utils.UserLookupEvent;
 
 import lombok.RequiredArgsConstructor;
 
@@ -19,12 +22,19 @@ import lombok.RequiredArgsConstructor;
  * converts them into Spring Security-compatible {@link UserDetails}
  * objects for authentication and authorization processing.
  * </p>
+ *
+ * <p>
+ * Lookups by username go through {@link UserDetailsCache}, so a user is only
+ * read from the database once per cache lifetime. Every lookup is recorded
+ * as a {@link UserLookupEvent} for Flight Recorder.
+ * </p>
  */
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository repo;
+    private final UserDetailsCache cache;
 
     /**
      * Loads a user by its username and maps it into a {@link UserDetails} object.
@@ -32,7 +42,8 @@ public class CustomUserDetailsService implements UserDetailsService {
      * The method:
      * </p>
      * <ul>
-     * <li>Searches the database for a matching user</li>
+     * <li>Returns the cached {@link UserDetails} if present</li>
+     * <li>Otherwise searches the database for a matching user</li>
      * <li>Throws {@link UsernameNotFoundException} if no match is found</li>
      * <li>Builds a Spring Security
      * {@link org.springframework.security.core.userdetails.User}
@@ -45,9 +56,46 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = repo.findByUsername(username)
-                .orElseThrow(() -> new AppException("ERR-103"));
+        UserLookupEvent event = new UserLookupEvent();
+        event.begin();
+        event.username = username;
+        event.cached = true;
+        try {
+            UserDetails details = cache.get(username, name -> {
+                event.cached = false;
+                User user = repo.findByUsername(name)
+                        .orElseThrow(() -> new AppException("ERR-103"));
+
+                return toUserDetails(user);
+            });
+            event.found = true;
+            return details;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Loads a user only if its stored version still matches the version a
+     * token was issued for.
+     * <p>
+     * Used when a stateless token may be out of date: a version mismatch means
+     * the user's password or role changed after the token was issued. The
+     * cache is bypassed because the stored version is not cached.
+     * </p>
+     *
+     * @param username     the username to look up
+     * @param tokenVersion the user version embedded in the token
+     * @return the {@link UserDetails} if the user exists and the version
+     *         matches, otherwise an empty {@link Optional}
+     */
+    public Optional<UserDetails> loadUserIfCurrent(String username, long tokenVersion) {
+        return repo.findByUsername(username)
+                .filter(user -> user.getVersion() == tokenVersion)
+                .map(this::toUserDetails);
+    }
 
+    private UserDetails toUserDetails(User user) {
         return org.springframework.security.core.userdetails.User
                 .withUsername(user.getUsername())
                 .password(user.getPassword())
@@ -0,0 +1,254 @@
+package com.noosyn.onboarding.service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.noosyn.onboarding.dto.auth_dto.PasswordHashingStats;
+import com.noosyn.onboarding.exception.AppException;
+import com.noosyn.onboarding.utils.PasswordCheckEvent;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs password hashing and verification on a dedicated, bounded pool.
+ * <p>
+ * BCrypt costs tens of milliseconds of CPU per call. Running it on request
+ * threads lets a burst of logins take the CPU and the request threads away
+ * from catalog reads. Here it runs on a fixed number of platform threads in
+ * front of a bounded queue, and callers wait for the result:
+ * </p>
+ * <ul>
+ * <li>a full queue rejects the call at once with {@code ERR-105} (429)</li>
+ * <li>so does a call that would not finish within the timeout, judged from
+ * the calls ahead of it and the mean time of past calls, so callers are not
+ * left to time out on work the pool would still have to do</li>
+ * <li>a call not finished within the timeout fails with {@code ERR-106}
+ * (503)</li>
+ * </ul>
+ *
+ * <p>
+ * A timed-out call that is still queued is removed and never runs. One that
+ * has already started cannot be stopped: BCrypt does not check for
+ * interruption, so the hash runs to completion and keeps its thread busy.
+ * Such calls are counted as abandoned.
+ * </p>
+ *
+ * <p>
+ * Every hash or check is recorded as a {@link PasswordCheckEvent} for Flight
+ * Recorder, with the time it waited for a thread. The wait is also recorded
+ * in the {@code auth.hashing.wait} timer, and published on
+ * {@code /actuator/prometheus} with the queue depth and the rejected,
+ * timed-out and abandoned calls.
+ * </p>
+ *
+ * <p>
+ * Configuration properties:
+ * </p>
+ * <ul>
+ * <li>{@code auth.hashing.threads} — hashing threads; defaults to half the
+ * available processors</li>
+ * <li>{@code auth.hashing.queueCapacity} — calls allowed to wait for a
+ * thread</li>
+ * <li>{@code auth.hashing.timeout} — how long a caller waits, queueing
+ * included</li>
+ * </ul>
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final int poolSize;
+    private final int queueCapacity;
+    private final long timeoutNanos;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+    private final LongAdder finished = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final Timer waitTimer;
+
+    public PasswordHasher(PasswordEncoder encoder,
+            @Value("${auth.hashing.threads:0}") int threads,
+            @Value("${auth.hashing.queueCapacity:100}") int queueCapacity,
+            @Value("${auth.hashing.timeout:2s}") Duration timeout,
+            MeterRegistry registry) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger count = new AtomicInteger();
+
+        this.encoder = encoder;
+        this.poolSize = poolSize;
+        this.queueCapacity = queueCapacity;
+        this.timeoutNanos = timeout.toNanos();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hashing-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.waitTimer = Timer.builder("auth.hashing.wait")
+                .description("Time password hashing calls waited for a thread")
+                .publishPercentileHistogram()
+                .register(registry);
+        FunctionCounter.builder("auth.hashing.rejected", rejected, LongAdder::sum)
+                .description("Password hashing calls rejected because the pool was saturated")
+                .register(registry);
+        FunctionCounter.builder("auth.hashing.timeouts", timedOut, LongAdder::sum)
+                .description("Password hashing calls that timed out")
+                .register(registry);
+        FunctionCounter.builder("auth.hashing.abandoned", abandoned, LongAdder::sum)
+                .description("Timed-out password hashing calls that kept running on the pool")
+                .register(registry);
+        Gauge.builder("auth.hashing.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashing calls waiting for a thread")
+                .register(registry);
+    }
+
+    /**
+     * Hashes a raw password.
+     *
+     * @param rawPassword the password to hash
+     * @return the encoded password
+     * @throws AppException with {@code ERR-105} (429) if too many calls are
+     *                      waiting, or {@code ERR-106} (503) on timeout
+     */
+    public String encode(String rawPassword) {
+        return run("encode", () -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks a raw password against its stored hash.
+     *
+     * @param rawPassword     the password to check
+     * @param encodedPassword the stored hash
+     * @return {@code true} if the password matches
+     * @throws AppException with {@code ERR-105} (429) if too many calls are
+     *                      waiting, or {@code ERR-106} (503) on timeout
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run("matches", () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * @return the size, queue depth and wait times of the hashing pool
+     */
+    public PasswordHashingStats stats() {
+        return new PasswordHashingStats(
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                executor.getCompletedTaskCount(),
+                rejected.sum(),
+                timedOut.sum(),
+                abandoned.sum(),
+                waitTimer.mean(TimeUnit.MILLISECONDS),
+                waitTimer.max(TimeUnit.MILLISECONDS),
+                averageHashNanos() / 1e6);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(String operation, Callable<T> work) {
+        long submitted = System.nanoTime();
+        FutureTask<T> task = new FutureTask<>(() -> {
+            long waited = System.nanoTime() - submitted;
+            waitTimer.record(waited, TimeUnit.NANOSECONDS);
+
+            PasswordCheckEvent event = new PasswordCheckEvent();
+            event.begin();
+            long start = System.nanoTime();
+            T result;
+            try {
+                result = work.call();
+            } finally {
+                finished.increment();
+                totalHashNanos.add(System.nanoTime() - start);
+            }
+            event.operation = operation;
+            event.matched = Boolean.TRUE.equals(result);
+            event.queueWait = waited;
+            event.commit();
+            return result;
+        });
+
+        if (expectedCompletionNanos() > timeoutNanos) {
+            rejected.increment();
+            throw new AppException("ERR-105", HttpStatus.TOO_MANY_REQUESTS);
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new AppException("ERR-105", HttpStatus.TOO_MANY_REQUESTS);
+        }
+
+        try {
+            return task.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            abandon(task);
+            timedOut.increment();
+            throw new AppException("ERR-106", HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (InterruptedException ex) {
+            abandon(task);
+            Thread.currentThread().interrupt();
+            throw new AppException("ERR-106", HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Estimates how long a call submitted now would take: one mean hash time
+     * for every round of calls ahead of it on the pool, plus its own. Zero
+     * until a call has finished.
+     */
+    private long expectedCompletionNanos() {
+        long ahead = executor.getQueue().size() + executor.getActiveCount();
+        return (ahead / poolSize + 1) * averageHashNanos();
+    }
+
+    private long averageHashNanos() {
+        long count = finished.sum();
+        return count == 0 ? 0 : totalHashNanos.sum() / count;
+    }
+
+    /**
+     * Gives up on a call. A queued call is removed and never runs; a running
+     * one is interrupted, which BCrypt ignores, so it is counted as abandoned.
+     */
+    private void abandon(FutureTask<?> task) {
+        boolean dequeued = executor.remove(task);
+        if (task.cancel(true) && !dequeued) {
+            abandoned.increment();
+        }
+    }
+}
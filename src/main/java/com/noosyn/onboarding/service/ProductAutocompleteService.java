@@ -0,0 +1,136 @@
+package com.noosyn.onboarding.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.noosyn.onboarding.dto.product_dto.ProductResponse;
+import com.noosyn.onboarding.exception.AppException;
+import com.noosyn.onboarding.repository.ProductRepository;
+import com.noosyn.onboarding.utils.PrefixTrie;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Service suggesting product names for a typed prefix.
+ * <p>
+ * Suggestions come from a {@link PrefixTrie} over all product names, loaded
+ * once the application is ready and kept current from
+ * {@link ProductChangedEvent}s, so a keystroke never reaches the database.
+ * The current name of every product is tracked by id so that renames and
+ * deletions can remove the old name from the trie.
+ * </p>
+ *
+ * <p>
+ * Writes to the name map and the trie are serialized by a
+ * {@link ReentrantLock} rather than done inside
+ * {@code ConcurrentHashMap.compute}, whose bin monitor would pin a virtual
+ * thread to its carrier while it waits for the trie's write lock.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductAutocompleteService {
+
+    private final ProductRepository repo;
+
+    private final PrefixTrie trie = new PrefixTrie();
+
+    /** Guards {@link #names}, {@link #deletedDuringLoad} and writes to the trie. */
+    private final Lock writeLock = new ReentrantLock();
+    private final Map<Long, String> names = new HashMap<>();
+
+    /** Ids deleted while the initial load is running; {@code null} otherwise. */
+    private Set<Long> deletedDuringLoad;
+
+    @Value("${products.autocomplete.maxResults:20}")
+    private int maxResults;
+
+    /**
+     * Loads every product name into the trie.
+     * <p>
+     * Products written while the load is running are handled by their change
+     * events; the load skips them so it never re-adds a stale name.
+     * </p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        write(() -> deletedDuringLoad = new HashSet<>());
+        try (Stream<ProductResponse> products = repo.streamResponses()) {
+            Iterator<ProductResponse> it = products.iterator();
+            while (it.hasNext()) {
+                ProductResponse p = it.next();
+                write(() -> {
+                    if (!names.containsKey(p.id()) && !deletedDuringLoad.contains(p.id())) {
+                        trie.add(p.name());
+                        names.put(p.id(), p.name());
+                    }
+                });
+            }
+        } finally {
+            write(() -> deletedDuringLoad = null);
+        }
+    }
+
+    /**
+     * Applies a committed product change to the trie.
+     *
+     * @param event the committed product change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        write(() -> {
+            String current = names.remove(event.id());
+            if (current != null) {
+                trie.remove(current);
+            }
+            if (event.type() == ProductChangedEvent.Type.DELETED) {
+                if (deletedDuringLoad != null) {
+                    deletedDuringLoad.add(event.id());
+                }
+            } else {
+                trie.add(event.product().name());
+                names.put(event.id(), event.product().name());
+            }
+        });
+    }
+
+    /**
+     * Suggests product names starting with a prefix, ignoring case.
+     *
+     * @param prefix the text typed so far
+     * @param limit  the maximum number of names, capped at
+     *               {@code products.autocomplete.maxResults}
+     * @return matching names in alphabetical order, shorter names first
+     * @throws AppException with {@code ERR-211} if the prefix is blank
+     */
+    public List<String> complete(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new AppException("ERR-211");
+        }
+        return trie.complete(prefix, Math.max(1, Math.min(limit, maxResults)));
+    }
+
+    private void write(Runnable action) {
+        writeLock.lock();
+        try {
+            action.run();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
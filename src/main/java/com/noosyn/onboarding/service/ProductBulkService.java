@@ -0,0 +1,399 @@
+package com.noosyn.onboarding.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.MessageSource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.noosyn.onboarding.dto.product_dto.BulkItemResult;
+import com.noosyn.onboarding.dto.product_dto.BulkResponse;
+import com.noosyn.onboarding.dto.product_dto.CatalogFormat;
+import com.noosyn.onboarding.dto.product_dto.ImportLineError;
+import com.noosyn.onboarding.dto.product_dto.ImportSummary;
+import com.noosyn.onboarding.dto.product_dto.ProductBulkUpdateRequest;
+import com.noosyn.onboarding.dto.product_dto.ProductRequest;
+import com.noosyn.onboarding.dto.product_dto.ProductResponse;
+import com.noosyn.onboarding.entity.Product;
+import com.noosyn.onboarding.exception.AppException;
+import com.noosyn.onboarding.repository.ProductRepository;
+import com.noosyn.onboarding.utils.CsvUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Service layer for writing many products in one request.
+ * <p>
+ * Items are validated one by one, so an invalid item is reported in the
+ * response instead of failing the whole request. Valid items are written in
+ * chunks of {@code hibernate.jdbc.batch_size}, each chunk in its own
+ * transaction, which lets Hibernate send every chunk as a single JDBC batch
+ * and keeps the persistence context small however large the request is.
+ * </p>
+ *
+ * <p>
+ * Imports are streamed: the uploaded file is read line by line and flushed
+ * every {@code products.import.batchSize} products, so memory use does not
+ * grow with the size of the file.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductBulkService {
+
+    private final ProductRepository repo;
+    private final Validator validator;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final ObjectMapper objectMapper;
+    private final MessageSource messageSource;
+
+    @Value("${products.bulk.maxSize:10000}")
+    private int maxBulkSize;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Value("${products.import.batchSize:1000}")
+    private int importBatchSize;
+
+    @Value("${products.import.maxReportedErrors:1000}")
+    private int maxReportedErrors;
+
+    /**
+     * Creates all valid products of the request.
+     *
+     * @param reqs the products to create
+     * @return the outcome of every item, in request order
+     * @throws AppException if the request exceeds {@code products.bulk.maxSize}
+     */
+    public BulkResponse createAll(List<ProductRequest> reqs) {
+        checkSize(reqs.size());
+        BulkItemResult[] results = new BulkItemResult[reqs.size()];
+
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < reqs.size(); i++) {
+            String errorCode = validate(reqs.get(i));
+            if (errorCode != null) {
+                results[i] = BulkItemResult.failure(i, null, errorCode);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        for (List<Integer> chunk : chunks(valid)) {
+            List<Product> products = chunk.stream()
+                    .map(i -> Product.builder()
+                            .name(reqs.get(i).name())
+                            .price(reqs.get(i).price())
+                            .build())
+                    .toList();
+            try {
+                tx.executeWithoutResult(status -> {
+                    repo.saveAll(products);
+                    products.forEach(p -> events.publishEvent(ProductChangedEvent.created(toResponse(p))));
+                });
+                for (int j = 0; j < chunk.size(); j++) {
+                    int i = chunk.get(j);
+                    results[i] = BulkItemResult.success(i, products.get(j).getId(), BulkItemResult.Status.CREATED);
+                }
+            } catch (DataAccessException ex) {
+                chunk.forEach(i -> results[i] = BulkItemResult.failure(i, null, "ERR-207"));
+            }
+        }
+
+        return BulkResponse.of(Arrays.asList(results));
+    }
+
+    /**
+     * Updates all valid products of the request that exist.
+     *
+     * @param reqs the products to update, identified by id
+     * @return the outcome of every item, in request order
+     * @throws AppException if the request exceeds {@code products.bulk.maxSize}
+     */
+    public BulkResponse updateAll(List<ProductBulkUpdateRequest> reqs) {
+        checkSize(reqs.size());
+        BulkItemResult[] results = new BulkItemResult[reqs.size()];
+
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < reqs.size(); i++) {
+            ProductBulkUpdateRequest req = reqs.get(i);
+            String errorCode = validate(req);
+            if (errorCode != null) {
+                results[i] = BulkItemResult.failure(i, req == null ? null : req.id(), errorCode);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        for (List<Integer> chunk : chunks(valid)) {
+            try {
+                tx.executeWithoutResult(status -> {
+                    Set<Long> ids = chunk.stream().map(i -> reqs.get(i).id()).collect(Collectors.toSet());
+                    Map<Long, Product> found = repo.findAllById(ids)
+                            .stream()
+                            .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+                    for (int i : chunk) {
+                        ProductBulkUpdateRequest req = reqs.get(i);
+                        Product p = found.get(req.id());
+                        if (p == null) {
+                            results[i] = BulkItemResult.failure(i, req.id(), "ERR-201");
+                            continue;
+                        }
+                        p.setName(req.name());
+                        p.setPrice(req.price());
+                        results[i] = BulkItemResult.success(i, p.getId(), BulkItemResult.Status.UPDATED);
+                    }
+
+                    repo.saveAll(found.values());
+                    repo.flush();
+                    found.values().forEach(p -> events.publishEvent(ProductChangedEvent.updated(toResponse(p))));
+                });
+            } catch (DataAccessException ex) {
+                chunk.forEach(i -> results[i] = BulkItemResult.failure(i, reqs.get(i).id(), "ERR-207"));
+            }
+        }
+
+        return BulkResponse.of(Arrays.asList(results));
+    }
+
+    /**
+     * Deletes all products of the request that exist, one {@code DELETE ...
+     * WHERE id IN (...)} statement per chunk.
+     *
+     * @param ids the IDs of the products to delete
+     * @return the outcome of every item, in request order
+     * @throws AppException if the request exceeds {@code products.bulk.maxSize}
+     */
+    public BulkResponse deleteAll(List<Long> ids) {
+        checkSize(ids.size());
+        BulkItemResult[] results = new BulkItemResult[ids.size()];
+
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) == null) {
+                results[i] = BulkItemResult.failure(i, null, "ERR-200");
+            } else {
+                valid.add(i);
+            }
+        }
+
+        for (List<Integer> chunk : chunks(valid)) {
+            try {
+                tx.executeWithoutResult(status -> {
+                    Set<Long> existing = new HashSet<>(
+                            repo.findExistingIds(chunk.stream().map(ids::get).toList()));
+                    repo.deleteAllByIdInBatch(existing);
+
+                    Set<Long> deleted = new HashSet<>();
+                    for (int i : chunk) {
+                        Long id = ids.get(i);
+                        if (!existing.contains(id)) {
+                            results[i] = BulkItemResult.failure(i, id, "ERR-201");
+                            continue;
+                        }
+                        if (deleted.add(id)) {
+                            events.publishEvent(ProductChangedEvent.deleted(id));
+                        }
+                        results[i] = BulkItemResult.success(i, id, BulkItemResult.Status.DELETED);
+                    }
+                });
+            } catch (DataAccessException ex) {
+                chunk.forEach(i -> results[i] = BulkItemResult.failure(i, ids.get(i), "ERR-207"));
+            }
+        }
+
+        return BulkResponse.of(Arrays.asList(results));
+    }
+
+    /**
+     * Creates a product for every valid line of an uploaded catalog file.
+     * <p>
+     * NDJSON files hold one {@link ProductRequest} object per line; extra
+     * properties such as {@code id} are ignored, so an export can be imported
+     * again. CSV files start with a header naming the {@code name} and
+     * {@code price} columns, in any order. Blank lines are skipped, and every
+     * rejected line is reported with its line number.
+     * </p>
+     *
+     * @param format the file format
+     * @param in     the file contents, read as UTF-8
+     * @return the summary of the import
+     * @throws AppException with {@code ERR-210} if a CSV header lacks a required column
+     * @throws IOException if reading the upload fails
+     */
+    public ImportSummary importProducts(CatalogFormat format, InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        ImportProgress progress = new ImportProgress();
+        List<Product> pending = new ArrayList<>();
+        List<Long> pendingLines = new ArrayList<>();
+        int[] columns = null;
+
+        String line;
+        long lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == CatalogFormat.CSV && columns == null) {
+                columns = csvColumns(line);
+                continue;
+            }
+
+            progress.processed++;
+            ProductRequest req;
+            try {
+                req = format == CatalogFormat.CSV
+                        ? parseCsv(line, columns)
+                        : objectMapper.readValue(line, ProductRequest.class);
+            } catch (JsonProcessingException | IllegalArgumentException ex) {
+                progress.fail(lineNo, "ERR-209");
+                continue;
+            }
+
+            String errorCode = validate(req);
+            if (errorCode != null) {
+                progress.fail(lineNo, errorCode);
+                continue;
+            }
+
+            pending.add(Product.builder().name(req.name()).price(req.price()).build());
+            pendingLines.add(lineNo);
+            if (pending.size() >= importBatchSize) {
+                flush(pending, pendingLines, progress);
+            }
+        }
+        flush(pending, pendingLines, progress);
+
+        return new ImportSummary(progress.processed, progress.imported, progress.failed,
+                progress.errors, progress.failed > progress.errors.size());
+    }
+
+    /**
+     * Writes the pending products in one transaction and clears the buffers.
+     */
+    private void flush(List<Product> pending, List<Long> pendingLines, ImportProgress progress) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            tx.executeWithoutResult(status -> {
+                repo.saveAll(pending);
+                pending.forEach(p -> events.publishEvent(ProductChangedEvent.created(toResponse(p))));
+            });
+            progress.imported += pending.size();
+        } catch (DataAccessException ex) {
+            pendingLines.forEach(n -> progress.fail(n, "ERR-207"));
+        }
+        pending.clear();
+        pendingLines.clear();
+    }
+
+    /**
+     * Locates the {@code name} and {@code price} columns of a CSV header.
+     *
+     * @return the indexes of the name and price columns
+     */
+    private static int[] csvColumns(String header) {
+        List<String> names = CsvUtils.parseLine(header).stream()
+                .map(n -> n.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        int name = names.indexOf("name");
+        int price = names.indexOf("price");
+        if (name < 0 || price < 0) {
+            throw new AppException("ERR-210");
+        }
+        return new int[] { name, price };
+    }
+
+    /**
+     * Reads a product from a CSV data line.
+     *
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    private static ProductRequest parseCsv(String line, int[] columns) {
+        List<String> fields = CsvUtils.parseLine(line);
+        if (fields.size() <= Math.max(columns[0], columns[1])) {
+            throw new IllegalArgumentException("Missing columns");
+        }
+        String price = fields.get(columns[1]).trim();
+        return new ProductRequest(fields.get(columns[0]), price.isEmpty() ? null : new BigDecimal(price));
+    }
+
+    private void checkSize(int size) {
+        if (size > maxBulkSize) {
+            throw new AppException("ERR-206");
+        }
+    }
+
+    /**
+     * Validates an item against its bean validation constraints.
+     *
+     * @return the error code of the first violation, or {@code null} if valid
+     */
+    private String validate(Object item) {
+        if (item == null) {
+            return "ERR-200";
+        }
+        return validator.validate(item).stream()
+                .map(ConstraintViolation::getMessage)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private List<List<Integer>> chunks(List<Integer> indexes) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < indexes.size(); from += batchSize) {
+            chunks.add(indexes.subList(from, Math.min(from + batchSize, indexes.size())));
+        }
+        return chunks;
+    }
+
+    private static ProductResponse toResponse(Product p) {
+        return new ProductResponse(p.getId(), p.getName(), p.getPrice(), p.getVersion());
+    }
+
+    /**
+     * Running totals of an import, keeping at most
+     * {@code products.import.maxReportedErrors} line errors.
+     */
+    private final class ImportProgress {
+        private long processed;
+        private long imported;
+        private long failed;
+        private final List<ImportLineError> errors = new ArrayList<>();
+
+        private void fail(long line, String errorCode) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                String message = messageSource.getMessage(errorCode, null, errorCode, Locale.getDefault());
+                errors.add(new ImportLineError(line, errorCode, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.noosyn.onboarding.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.noosyn.onboarding.dto.product_dto.CacheStatsResponse;
+import com.noosyn.onboarding.dto.product_dto.ProductResponse;
+
+/**
+ * Bounded, time-limited caches of products and listing pages.
+ * <p>
+ * Used by {@link ProductService} so that repeated reads of the same product
+ * or listing page do not hit the database. Every committed
+ * {@link ProductChangedEvent} refreshes or removes the affected product if
+ * it is cached and increments the catalog version. Listing pages are cached under the catalog
+ * version they were read at, so a write makes every cached page unreachable
+ * at once; the stale entries then age out.
+ * </p>
+ *
+ * <p>
+ * Loaders run outside of Caffeine's compute methods, which hold a
+ * {@code synchronized} hash bin lock and would pin a virtual thread to its
+ * carrier for the whole database round-trip. Concurrent misses on the same
+ * key are collapsed by the caller instead.
+ * </p>
+ *
+ * <p>
+ * Writes made by other application instances are not seen; the TTLs bound
+ * how long such entries can be served.
+ * </p>
+ *
+ * <p>
+ * Configuration properties:
+ * </p>
+ * <ul>
+ * <li>{@code products.cache.enabled} — turns both caches on or off</li>
+ * <li>{@code products.cache.maxSize} — maximum number of cached products</li>
+ * <li>{@code products.cache.ttl} — time after which a product is reloaded</li>
+ * <li>{@code products.cache.listings.maxSize} — maximum number of cached pages</li>
+ * <li>{@code products.cache.listings.ttl} — time after which a page is reloaded</li>
+ * </ul>
+ */
+@Component
+public class ProductCache {
+
+    private final boolean enabled;
+    private final Cache<Long, ProductResponse> products;
+    private final Cache<ListingKey, Object> listings;
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    public ProductCache(@Value("${products.cache.enabled:true}") boolean enabled,
+            @Value("${products.cache.maxSize:10000}") long maxSize,
+            @Value("${products.cache.ttl:10m}") Duration ttl,
+            @Value("${products.cache.listings.maxSize:1000}") long listingMaxSize,
+            @Value("${products.cache.listings.ttl:30s}") Duration listingTtl) {
+        this.enabled = enabled;
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.listings = Caffeine.newBuilder()
+                .maximumSize(listingMaxSize)
+                .expireAfterWrite(listingTtl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached product, loading and caching it on a miss.
+     * <p>
+     * Exceptions thrown by the loader are propagated and nothing is cached.
+     * </p>
+     *
+     * @param id     the product id
+     * @param loader loads the product when it is not cached
+     * @return the product
+     */
+    public ProductResponse get(Long id, Function<Long, ProductResponse> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        ProductResponse cached = products.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        long version = catalogVersion.get();
+        ProductResponse loaded = loader.apply(id);
+        // Skip caching if a write happened during the load; the listener
+        // increments the version before touching the entry, so checking it
+        // inside compute cannot reinstate a product it has just removed
+        products.asMap().compute(id, (key, current) ->
+                current != null || catalogVersion.get() != version ? current : loaded);
+        return loaded;
+    }
+
+    /**
+     * Returns a cached listing page, loading and caching it on a miss.
+     *
+     * @param query  identifies the page, e.g. a record of the request parameters;
+     *               must implement {@code equals} and {@code hashCode}
+     * @param loader reads the page when it is not cached
+     * @return the page
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getListing(Object query, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        ListingKey key = new ListingKey(catalogVersion.get(), query);
+        Object cached = listings.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        T loaded = loader.get();
+        listings.put(key, loaded);
+        return loaded;
+    }
+
+    /**
+     * Returns the catalog version, which changes on every product write seen
+     * by this instance.
+     *
+     * @return the current catalog version
+     */
+    public long catalogVersion() {
+        return catalogVersion.get();
+    }
+
+    /**
+     * Refreshes or removes a product after a committed change and invalidates
+     * all listing pages.
+     * <p>
+     * Only products that are already cached are refreshed; created products
+     * are left to be cached when first read, so a bulk create or import does
+     * not push the hot working set out of the cache.
+     * </p>
+     *
+     * @param event the committed product change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        catalogVersion.incrementAndGet();
+        switch (event.type()) {
+            case DELETED -> products.invalidate(event.id());
+            case UPDATED -> products.asMap().computeIfPresent(event.id(), (id, cached) -> event.product());
+            case CREATED -> {
+            }
+        }
+    }
+
+    /**
+     * @return hit, miss and eviction statistics of the product and listing caches
+     */
+    public List<CacheStatsResponse> stats() {
+        return List.of(
+                toResponse("products", products.estimatedSize(), products.stats()),
+                toResponse("listings", listings.estimatedSize(), listings.stats()));
+    }
+
+    private static CacheStatsResponse toResponse(String name, long size, CacheStats stats) {
+        return new CacheStatsResponse(name, size, stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.evictionCount());
+    }
+
+    private record ListingKey(long catalogVersion, Object query) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.noosyn.onboarding.service;
+
+import com.noosyn.onboarding.dto.product_dto.ProductResponse;
+
+/**
+ * Application event published by the product services after a product is
+ * created, updated or deleted.
+ * <p>
+ * Components that keep derived in-memory state about the catalog listen for it
+ * instead of being called directly by every write path.
+ * </p>
+ *
+ * @param type    the kind of change
+ * @param id      the id of the affected product
+ * @param product the product after the change, or {@code null} for deletions
+ */
+public record ProductChangedEvent(Type type, Long id, ProductResponse product) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static ProductChangedEvent created(ProductResponse product) {
+        return new ProductChangedEvent(Type.CREATED, product.id(), product);
+    }
+
+    public static ProductChangedEvent updated(ProductResponse product) {
+        return new ProductChangedEvent(Type.UPDATED, product.id(), product);
+    }
+
+    public static ProductChangedEvent deleted(Long id) {
+        return new ProductChangedEvent(Type.DELETED, id, null);
+    }
+}
@@ -0,0 +1,73 @@
+package com.noosyn.onboarding.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.noosyn.onboarding.repository.ProductRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps an in-memory estimate of the number of products.
+ * <p>
+ * Serves {@link com.noosyn.onboarding.dto.product_dto.TotalMode#ESTIMATED}
+ * listings without a {@code COUNT(*)} per page load. The estimate is adjusted
+ * on every committed create and delete, and replaced with an exact count in
+ * the background every {@code products.count.refreshMs} milliseconds to
+ * correct drift from writes made by other instances.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCountEstimator {
+
+    private final ProductRepository repo;
+
+    /** Current estimate; negative until the first count has been taken. */
+    private final AtomicLong count = new AtomicLong(-1);
+
+    /**
+     * Returns the estimated number of products, counting them on first use.
+     *
+     * @return the estimated product count
+     */
+    public long estimate() {
+        long current = count.get();
+        if (current < 0) {
+            refresh();
+            current = count.get();
+        }
+        return current;
+    }
+
+    /**
+     * Replaces the estimate with an exact count.
+     */
+    @Scheduled(fixedDelayString = "${products.count.refreshMs:60000}")
+    public void refresh() {
+        count.set(repo.count());
+    }
+
+    /**
+     * Adjusts the estimate after a product was created or deleted.
+     *
+     * @param event the committed product change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> adjust(1);
+            case DELETED -> adjust(-1);
+            default -> {
+                // Updates do not change the count
+            }
+        }
+    }
+
+    private void adjust(long delta) {
+        count.getAndUpdate(current -> current < 0 ? current : Math.max(0, current + delta));
+    }
+}
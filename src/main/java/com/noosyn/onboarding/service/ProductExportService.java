@@ -0,0 +1,73 @@
+package com.noosyn.onboarding.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.noosyn.onboarding.dto.product_dto.CatalogFormat;
+import com.noosyn.onboarding.dto.product_dto.ProductResponse;
+import com.noosyn.onboarding.repository.ProductRepository;
+import com.noosyn.onboarding.utils.CsvUtils;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Service that streams the whole product catalog to an output stream.
+ * <p>
+ * Products are read through a forward-only JDBC cursor and written one at a
+ * time. Rows are mapped straight to {@link ProductResponse} rather than to
+ * managed entities, so the persistence context stays empty and heap usage
+ * does not grow with the size of the catalog.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductExportService {
+
+    private final ProductRepository repo;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes every product, in id order, to the given stream.
+     * <p>
+     * Runs in a read-only transaction that stays open while the cursor is
+     * consumed.
+     * </p>
+     *
+     * @param format the output format
+     * @param out    the stream to write to; it is flushed but not closed
+     * @throws IOException if writing to the stream fails
+     */
+    @Transactional(readOnly = true)
+    public void export(CatalogFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        if (format == CatalogFormat.CSV) {
+            writer.write("id,name,price\n");
+        }
+
+        try (Stream<ProductResponse> products = repo.streamResponses()) {
+            Iterator<ProductResponse> it = products.iterator();
+            while (it.hasNext()) {
+                ProductResponse p = it.next();
+                writer.write(format == CatalogFormat.CSV ? toCsv(p) : objectMapper.writeValueAsString(p));
+                writer.write('\n');
+            }
+        }
+
+        writer.flush();
+    }
+
+    private static String toCsv(ProductResponse p) {
+        return p.id() + "," + CsvUtils.escape(p.name()) + "," + p.price().toPlainString();
+    }
+}
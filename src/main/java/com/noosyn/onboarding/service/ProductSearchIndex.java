@@ -0,0 +1,313 @@
+package com.noosyn.onboarding.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.noosyn.onboarding.dto.product_dto.PaginatedResponse;
+import com.noosyn.onboarding.dto.product_dto.ProductResponse;
+import com.noosyn.onboarding.exception.AppException;
+import com.noosyn.onboarding.repository.ProductRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-memory inverted index over product names.
+ * <p>
+ * Names are split into lowercase alphanumeric tokens. Every token is indexed
+ * as a whole, in a sorted map for prefix lookups, and by its trigrams for
+ * matches inside a token. A query matches a product when each of its terms
+ * matches one of the product's tokens, scored as follows:
+ * </p>
+ * <ul>
+ *     <li>3 – the term equals a token</li>
+ *     <li>2 – the term is a prefix of a token</li>
+ *     <li>1 – the term occurs inside a token (terms of three or more characters)</li>
+ * </ul>
+ *
+ * <p>
+ * Results are ordered by total score, then by shorter name, then by id; only
+ * the hits up to the end of the requested page are kept and sorted, so early
+ * pages of a broad query do not sort every match.
+ * The index is loaded once the application is ready and kept current from
+ * {@link ProductChangedEvent}s, so searches never touch the database.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int GRAM = 3;
+
+    /** Best match first: highest score, then shorter name, then lower id. */
+    private static final Comparator<ScoredProduct> RANKING = Comparator.comparingInt(ScoredProduct::score).reversed()
+            .thenComparingInt((ScoredProduct h) -> h.product().name().length())
+            .thenComparing(h -> h.product().id());
+
+    private final ProductRepository repo;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, ProductResponse> documents = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> tokens = new TreeMap<>();
+    private final Map<String, Set<Long>> trigrams = new HashMap<>();
+
+    /** Ids deleted while the initial load is running; {@code null} otherwise. */
+    private Set<Long> deletedDuringLoad;
+
+    /**
+     * Loads every product into the index.
+     * <p>
+     * Products written while the load is running are indexed from their
+     * change events; the load skips them so it never overwrites a newer
+     * version or resurrects a deleted product.
+     * </p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        write(() -> deletedDuringLoad = new HashSet<>());
+        try (Stream<ProductResponse> products = repo.streamResponses()) {
+            Iterator<ProductResponse> it = products.iterator();
+            while (it.hasNext()) {
+                ProductResponse doc = it.next();
+                write(() -> {
+                    if (!documents.containsKey(doc.id()) && !deletedDuringLoad.contains(doc.id())) {
+                        add(doc);
+                    }
+                });
+            }
+        } finally {
+            write(() -> deletedDuringLoad = null);
+        }
+    }
+
+    /**
+     * Applies a committed product change to the index.
+     *
+     * @param event the committed product change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        write(() -> {
+            remove(event.id());
+            if (event.type() == ProductChangedEvent.Type.DELETED) {
+                if (deletedDuringLoad != null) {
+                    deletedDuringLoad.add(event.id());
+                }
+            } else {
+                add(event.product());
+            }
+        });
+    }
+
+    /**
+     * Searches product names.
+     *
+     * @param query the search terms, separated by whitespace or punctuation
+     * @param page  the page number (0-based)
+     * @param size  the page size
+     * @return a page of matching products, best matches first, with exact totals
+     * @throws AppException with {@code ERR-211} if the query has no terms, or
+     *                      {@code ERR-203} if the page or size is invalid
+     */
+    public PaginatedResponse<ProductResponse> search(String query, int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new AppException("ERR-203");
+        }
+        List<String> terms = tokenize(query == null ? "" : query);
+        if (terms.isEmpty()) {
+            throw new AppException("ERR-211");
+        }
+
+        // Only the hits up to the end of the requested page are ranked, in a
+        // heap whose head is the worst of them
+        int wanted = (int) Math.min((long) (page + 1) * size, Integer.MAX_VALUE);
+        PriorityQueue<ScoredProduct> best = new PriorityQueue<>(RANKING.reversed());
+        int total;
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (String term : terms) {
+                Map<Long, Integer> termScores = match(term);
+                scores = scores == null ? termScores : intersect(scores, termScores);
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+            total = scores.size();
+            scores.forEach((id, score) -> {
+                ScoredProduct hit = new ScoredProduct(documents.get(id), score);
+                if (best.size() < wanted) {
+                    best.add(hit);
+                } else if (RANKING.compare(hit, best.peek()) < 0) {
+                    best.poll();
+                    best.add(hit);
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<ScoredProduct> top = new ArrayList<>(best);
+        top.sort(RANKING);
+        int from = (int) Math.min((long) page * size, top.size());
+        List<ProductResponse> items = top.subList(from, top.size()).stream().map(ScoredProduct::product).toList();
+        int totalPages = (int) Math.ceil((double) total / size);
+
+        return new PaginatedResponse<>(items, page, total, totalPages);
+    }
+
+    /**
+     * Returns the number of indexed products.
+     *
+     * @return the number of indexed products
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores every product matching a single term. Must hold the read lock.
+     */
+    private Map<Long, Integer> match(String term) {
+        Map<Long, Integer> scores = new HashMap<>();
+
+        if (term.length() >= GRAM) {
+            for (Long id : trigramCandidates(term)) {
+                scores.put(id, 1);
+            }
+        }
+        for (Set<Long> ids : tokens.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+            ids.forEach(id -> scores.put(id, 2));
+        }
+        Set<Long> exact = tokens.get(term);
+        if (exact != null) {
+            exact.forEach(id -> scores.put(id, 3));
+        }
+        return scores;
+    }
+
+    /**
+     * Returns the products with a token containing the term, using the
+     * trigram postings to narrow the candidates. Must hold the read lock.
+     */
+    private Set<Long> trigramCandidates(String term) {
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String gram : grams(term)) {
+            Set<Long> ids = trigrams.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> matches = new HashSet<>();
+        for (Long id : postings.get(0)) {
+            if (postings.stream().allMatch(p -> p.contains(id))
+                    && normalize(documents.get(id).name()).contains(term)) {
+                matches.add(id);
+            }
+        }
+        return matches;
+    }
+
+    private static Map<Long, Integer> intersect(Map<Long, Integer> scores, Map<Long, Integer> termScores) {
+        Map<Long, Integer> result = new HashMap<>();
+        scores.forEach((id, score) -> {
+            Integer termScore = termScores.get(id);
+            if (termScore != null) {
+                result.put(id, score + termScore);
+            }
+        });
+        return result;
+    }
+
+    /** Must hold the write lock. */
+    private void add(ProductResponse doc) {
+        documents.put(doc.id(), doc);
+        for (String token : tokenize(doc.name())) {
+            tokens.computeIfAbsent(token, t -> new HashSet<>()).add(doc.id());
+            for (String gram : grams(token)) {
+                trigrams.computeIfAbsent(gram, g -> new HashSet<>()).add(doc.id());
+            }
+        }
+    }
+
+    /** Must hold the write lock. */
+    private void remove(Long id) {
+        ProductResponse doc = documents.remove(id);
+        if (doc == null) {
+            return;
+        }
+        for (String token : tokenize(doc.name())) {
+            removePosting(tokens, token, id);
+            for (String gram : grams(token)) {
+                removePosting(trigrams, gram, id);
+            }
+        }
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String key, Long id) {
+        Set<Long> ids = postings.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> tokenize(String text) {
+        return SEPARATORS.splitAsStream(normalize(text))
+                .filter(t -> !t.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private static Set<String> grams(String token) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            grams.add(token.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private record ScoredProduct(ProductResponse product, int score) {
+    }
+}
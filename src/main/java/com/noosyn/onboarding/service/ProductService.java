@@ -1,18 +1,43 @@
 package com.noosyn.onboarding.service;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.noosyn.onboarding.dto.product_dto.CacheStatsResponse;
+import com.noosyn.onboarding.dto.product_dto.CursorPageResponse;
 import com.noosyn.onboarding.dto.product_dto.PaginatedResponse;
+import com.noosyn.onboarding.dto.product_dto.ProductBatchResponse;
+import com.noosyn.onboarding.dto.product_dto.ProductQuery;
 import com.noosyn.onboarding.dto.product_dto.ProductRequest;
 import com.noosyn.onboarding.dto.product_dto.ProductResponse;
+import com.noosyn.onboarding.dto.product_dto.TotalMode;
 import com.noosyn.onboarding.entity.Product;
 import com.noosyn.onboarding.exception.AppException;
 import com.noosyn.onboarding.repository.ProductRepository;
+import com.noosyn.onboarding.utils.CursorCodec;
+import com.noosyn.onboarding.utils.ProductOperationEvent;
+import com.noosyn.onboarding.utils.SingleFlight;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -20,14 +45,47 @@ import lombok.RequiredArgsConstructor;
  * <p>
  * Provides methods for creating, retrieving, updating, and deleting
  * {@link Product} entities. This service converts entities into DTOs
- * to ensure a clean separation between persistence and API models.
+ * to ensure a clean separation between persistence and API models; reads
+ * select the DTOs directly, so no entities are loaded to serve them.
+ * </p>
+ *
+ * <p>
+ * Every write publishes a {@link ProductChangedEvent} so in-memory views of
+ * the catalog can follow along.
+ * </p>
+ *
+ * <p>
+ * Single products and listing pages are read through {@link ProductCache},
+ * which refreshes or invalidates its entries on those events. On a cache
+ * miss, queries for the same product or page that arrive while one is
+ * already running share its result through a {@link SingleFlight}, so a
+ * burst of misses on a hot key costs one query, even when that query fails.
+ * Cache hits never touch the {@code SingleFlight}.
+ * </p>
+ *
+ * <p>
+ * Every public method is timed as {@code products.service}, tagged by method
+ * and exception, with a percentile histogram. Reads and writes are also
+ * recorded as {@link ProductOperationEvent}s for Flight Recorder, with the
+ * product id and the number of rows.
  * </p>
  */
 @Service
+@Timed(value = "products.service", histogram = true)
 @RequiredArgsConstructor
 public class ProductService {
 
     private final ProductRepository repo;
+    private final ProductCountEstimator countEstimator;
+    private final ProductCache cache;
+    private final ApplicationEventPublisher events;
+    private final CatalogRevisionService revisions;
+
+    private final SingleFlight<Long, ProductResponse> productReads = new SingleFlight<>();
+    private final SingleFlight<Object, Object> listingReads = new SingleFlight<>();
+
+    @Value("${products.batch.maxSize:100}")
+    private int maxBatchSize;
 
     /**
      * Creates a new product based on the provided request data.
@@ -35,80 +93,369 @@ public class ProductService {
      * @param req the product creation request containing name and price
      * @return a {@link ProductResponse} representing the newly created product
      */
+    @Transactional
     public ProductResponse create(ProductRequest req) {
-        Product p = repo.save(Product.builder()
-                .name(req.name())
-                .price(req.price())
-                .build());
-        return new ProductResponse(p.getId(), p.getName(), p.getPrice());
+        return ProductOperationEvent.record("create", 0, () -> {
+            Product p = repo.save(Product.builder()
+                    .name(req.name())
+                    .price(req.price())
+                    .build());
+            ProductResponse resp = new ProductResponse(p.getId(), p.getName(), p.getPrice(), p.getVersion());
+            events.publishEvent(ProductChangedEvent.created(resp));
+            return resp;
+        }, resp -> 1);
     }
 
     /**
-     * Retrieves all products from the system.
+     * Retrieves all products from the system with an exact total count.
      *
      * @param page the page number (0-based)
      * @param size the page size
-     * @return a page of {@link Product} entities
+     * @return a page of products
      */
     public PaginatedResponse<ProductResponse> getAllProducts(int page, int size) {
+        return getAllProducts(page, size, TotalMode.EXACT);
+    }
+
+    /**
+     * Retrieves all products from the system in id order.
+     *
+     * @param page      the page number (0-based)
+     * @param size      the page size
+     * @param totalMode how the total number of products is reported
+     * @return a page of products
+     */
+    public PaginatedResponse<ProductResponse> getAllProducts(int page, int size, TotalMode totalMode) {
+        return getAllProducts(page, size, totalMode, ProductQuery.DEFAULT);
+    }
+
+    /**
+     * Retrieves the products matching a query.
+     * <p>
+     * Only {@link TotalMode#EXACT} runs a {@code COUNT(*)} query. The other
+     * modes read a {@link Slice}, which fetches one extra row to detect a next
+     * page, and either report the cached estimate or no totals at all. The
+     * estimate covers the whole catalog, so it is not reported for listings
+     * filtered by price.
+     * </p>
+     *
+     * @param page      the page number (0-based)
+     * @param size      the page size
+     * @param totalMode how the total number of products is reported
+     * @param query     the price filter and sort order
+     * @return a page of products
+     */
+    public PaginatedResponse<ProductResponse> getAllProducts(int page, int size, TotalMode totalMode,
+            ProductQuery query) {
+        return ProductOperationEvent.record("list", 0,
+                () -> readListing(new PageKey(page, size, totalMode, query),
+                        () -> readPage(page, size, totalMode, query)),
+                (PaginatedResponse<ProductResponse> result) -> result.items().size());
+    }
+
+    private PaginatedResponse<ProductResponse> readPage(int page, int size, TotalMode totalMode,
+            ProductQuery query) {
 
         PageRequest pageable = PageRequest.of(page, size);
 
-        Page<Product> productPage = repo.findAll(pageable);
+        if (totalMode == TotalMode.EXACT && query.isDefault()) {
+            Page<ProductResponse> productPage = repo.findResponsePage(pageable);
 
-        List<ProductResponse> items = productPage.getContent()
-                .stream()
-                .map(p -> new ProductResponse(
-                        p.getId(),
-                        p.getName(),
-                        p.getPrice()))
-                .toList();
+            return new PaginatedResponse<>(
+                    productPage.getContent(),
+                    productPage.getNumber(),
+                    productPage.getTotalElements(),
+                    productPage.getTotalPages());
+        }
+
+        Slice<ProductResponse> productSlice = query.isDefault()
+                ? repo.findResponseSlice(pageable)
+                : repo.findSlice(query, pageable);
+
+        Long totalItems = null;
+        if (totalMode == TotalMode.EXACT) {
+            totalItems = repo.countMatching(query);
+        } else if (totalMode == TotalMode.ESTIMATED && !query.isFiltered()) {
+            totalItems = countEstimator.estimate();
+        }
+        Integer totalPages = totalItems == null ? null : (int) Math.ceil((double) totalItems / size);
 
         return new PaginatedResponse<>(
-                items,
-                productPage.getNumber(),
-                productPage.getTotalElements(),
-                productPage.getTotalPages());
+                productSlice.getContent(),
+                productSlice.getNumber(),
+                totalItems,
+                totalPages,
+                productSlice.hasNext());
+    }
+
+    /**
+     * Retrieves the page of products that follows the given cursor, in id
+     * order.
+     *
+     * @param after the opaque cursor returned with the previous page, or blank
+     *              for the first page
+     * @param size  the page size
+     * @return the products of the page and the cursor of the next one
+     * @throws AppException if the cursor or page size is invalid
+     */
+    public CursorPageResponse<ProductResponse> getProductsAfter(String after, int size) {
+        return getProductsAfter(after, size, ProductQuery.DEFAULT);
+    }
+
+    /**
+     * Retrieves the page of products matching a query that follows the given
+     * cursor.
+     * <p>
+     * Uses keyset pagination on the sort field and the primary key: one extra
+     * row is fetched to detect whether another page exists, and no rows are
+     * skipped, so the cost stays constant however deep the client pages.
+     * </p>
+     *
+     * @param after the opaque cursor returned with the previous page, or blank
+     *              for the first page
+     * @param size  the page size
+     * @param query the price filter and sort order; must be the same for every
+     *              page
+     * @return the products of the page and the cursor of the next one
+     * @throws AppException if the cursor or page size is invalid
+     */
+    public CursorPageResponse<ProductResponse> getProductsAfter(String after, int size, ProductQuery query) {
+        if (size < 1) {
+            throw new AppException("ERR-203");
+        }
+        return ProductOperationEvent.record("listAfter", 0,
+                () -> readListing(new CursorKey(after, size, query), () -> readCursorPage(after, size, query)),
+                (CursorPageResponse<ProductResponse> result) -> result.items().size());
+    }
+
+    private CursorPageResponse<ProductResponse> readCursorPage(String after, int size, ProductQuery query) {
+
+        List<ProductResponse> rows;
+        if (query.isDefault()) {
+            rows = repo.findResponsesAfterId(CursorCodec.decode(after), Limit.of(size + 1));
+        } else {
+            CursorCodec.Position position = CursorCodec.decode(after, cursorOrder(query));
+            rows = position == null
+                    ? repo.findAfter(query, null, null, Limit.of(size + 1))
+                    : repo.findAfter(query, sortValue(query, position.value()), position.id(), Limit.of(size + 1));
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<ProductResponse> page = hasNext ? List.copyOf(rows.subList(0, size)) : rows;
+
+        String nextCursor = hasNext ? cursorFor(query, page.get(page.size() - 1)) : null;
+        return new CursorPageResponse<>(page, nextCursor);
     }
 
     /**
-     * Retrieves a product by its identifier.
+     * Retrieves a product by its identifier, from the cache when possible.
      *
      * @param id the ID of the product to retrieve
      * @return a {@link ProductResponse} containing product details
      * @throws RuntimeException if no product exists with the given ID
      */
     public ProductResponse get(Long id) {
-        Product p = repo.findById(id)
-                .orElseThrow(() -> new AppException("ERR-201"));
-        return new ProductResponse(p.getId(), p.getName(), p.getPrice());
+        return ProductOperationEvent.record("get", id,
+                () -> cache.get(id, key -> productReads.execute(key, () -> repo.findResponseById(key)
+                        .orElseThrow(() -> new AppException("ERR-201")))),
+                resp -> 1);
+    }
+
+    /**
+     * Retrieves several products by id with a single {@code IN} query.
+     * <p>
+     * Duplicate ids are returned once. Products are returned in the order of
+     * their first occurrence in {@code ids}, and ids that do not exist are
+     * reported instead of failing the request.
+     * </p>
+     *
+     * @param ids the IDs of the products to retrieve
+     * @return the products found and the ids that are missing
+     * @throws AppException if more than {@code products.batch.maxSize} distinct
+     *                      ids are requested
+     */
+    public ProductBatchResponse getBatch(Collection<Long> ids) {
+        return ProductOperationEvent.record("getBatch", 0, () -> readBatch(ids), batch -> batch.items().size());
+    }
+
+    private ProductBatchResponse readBatch(Collection<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.size() > maxBatchSize) {
+            throw new AppException("ERR-205");
+        }
+        if (requested.isEmpty()) {
+            return new ProductBatchResponse(List.of(), List.of());
+        }
+
+        Map<Long, ProductResponse> found = repo.findResponsesByIdIn(requested)
+                .stream()
+                .collect(Collectors.toMap(ProductResponse::id, Function.identity()));
+
+        List<ProductResponse> items = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            ProductResponse p = found.get(id);
+            if (p != null) {
+                items.add(p);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        return new ProductBatchResponse(items, missingIds);
     }
 
     /**
      * Updates an existing product with new information.
+     * <p>
+     * The product is written with a single {@code UPDATE} instead of being
+     * loaded first. With an expected version the statement only matches that
+     * version, so concurrent updates cannot silently overwrite each other.
+     * Without one, the new version is read back in the same transaction.
+     * </p>
+     *
+     * <p>
+     * The published event refreshes the cached product and invalidates cached
+     * listing pages.
+     * </p>
+     *
+     * @param id              the ID of the product to update
+     * @param req             the updated product data
+     * @param expectedVersion the version the caller last saw, or {@code null}
+     *                        to update unconditionally
+     * @return a {@link ProductResponse} with the updated fields and new version
+     * @throws AppException with {@code ERR-201} if the product does not exist,
+     *                      or {@code ERR-214} (412) if its version differs
+     */
+    @Transactional
+    public ProductResponse update(Long id, ProductRequest req, Long expectedVersion) {
+        return ProductOperationEvent.record("update", id, () -> write(id, req, expectedVersion), resp -> 1);
+    }
+
+    private ProductResponse write(Long id, ProductRequest req, Long expectedVersion) {
+        long version;
+        if (expectedVersion == null) {
+            if (repo.updateById(id, req.name(), req.price()) == 0) {
+                throw new AppException("ERR-201");
+            }
+            version = repo.findVersionById(id).orElseThrow(() -> new AppException("ERR-201"));
+        } else {
+            if (repo.updateByIdAndVersion(id, expectedVersion, req.name(), req.price()) == 0) {
+                throw conflictOrNotFound(id);
+            }
+            version = expectedVersion + 1;
+        }
+
+        ProductResponse resp = new ProductResponse(id, req.name(), req.price(), version);
+        events.publishEvent(ProductChangedEvent.updated(resp));
+        return resp;
+    }
+
+    /**
+     * Deletes a product by its identifier with a single {@code DELETE}.
+     * <p>
+     * The published event removes the cached product and invalidates cached
+     * listing pages.
+     * </p>
+     *
+     * @param id              the ID of the product to delete
+     * @param expectedVersion the version the caller last saw, or {@code null}
+     *                        to delete unconditionally
+     * @throws AppException with {@code ERR-201} if the product does not exist,
+     *                      or {@code ERR-214} (412) if its version differs
+     */
+    @Transactional
+    public void delete(Long id, Long expectedVersion) {
+        ProductOperationEvent.record("delete", id, () -> {
+            if (expectedVersion == null) {
+                if (repo.removeById(id) == 0) {
+                    throw new AppException("ERR-201");
+                }
+            } else if (repo.removeByIdAndVersion(id, expectedVersion) == 0) {
+                throw conflictOrNotFound(id);
+            }
+            events.publishEvent(ProductChangedEvent.deleted(id));
+            return null;
+        }, none -> 1);
+    }
+
+    /**
+     * Returns the entity tag of every product listing.
+     * <p>
+     * Computed from the catalog revision alone, which is normally served from
+     * memory, so a listing can be answered with {@code 304 Not Modified}
+     * without any query, and every application instance returns the same tag
+     * once it has seen the latest write.
+     * </p>
+     *
+     * @return the quoted, strong entity tag
+     */
+    public String catalogETag() {
+        return "\"" + revisions.current() + "\"";
+    }
+
+    /**
+     * Returns the statistics of the product and listing caches.
      *
-     * @param id  the ID of the product to update
-     * @param req the updated product data
-     * @return a {@link ProductResponse} with the updated fields
-     * @throws RuntimeException if the product does not exist
+     * @return one entry per cache
+     */
+    public List<CacheStatsResponse> cacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Tells a failed versioned write on a missing product apart from one on a
+     * product with a different version; only runs after a conflict.
      */
-    public ProductResponse update(Long id, ProductRequest req) {
-        Product p = repo.findById(id)
-                .orElseThrow(() -> new AppException("ERR-201"));
+    private AppException conflictOrNotFound(Long id) {
+        return repo.existsById(id)
+                ? new AppException("ERR-214", HttpStatus.PRECONDITION_FAILED)
+                : new AppException("ERR-201");
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T readListing(Object key, Supplier<T> loader) {
+        return cache.getListing(key, () -> (T) listingReads.execute(key, loader));
+    }
 
-        p.setName(req.name());
-        p.setPrice(req.price());
-        repo.save(p);
+    private static String cursorFor(ProductQuery query, ProductResponse last) {
+        if (query.isDefault()) {
+            return CursorCodec.encode(last.id());
+        }
+        String value = switch (query.sort()) {
+            case ID -> "";
+            case PRICE -> last.price().toPlainString();
+            case NAME -> last.name();
+        };
+        return CursorCodec.encode(cursorOrder(query), last.id(), value);
+    }
 
-        return new ProductResponse(p.getId(), p.getName(), p.getPrice());
+    private static String cursorOrder(ProductQuery query) {
+        return query.sort().name().toLowerCase(Locale.ROOT) + (query.descending() ? ".desc" : ".asc");
     }
 
     /**
-     * Deletes a product by its identifier.
+     * Converts the sort value stored in a cursor back to the attribute type.
      *
-     * @param id the ID of the product to delete
+     * @throws AppException with {@code ERR-202} if the value is malformed
      */
-    public void delete(Long id) {
-        repo.deleteById(id);
+    private static Object sortValue(ProductQuery query, String value) {
+        try {
+            return switch (query.sort()) {
+                case ID -> null;
+                case PRICE -> new BigDecimal(value);
+                case NAME -> value;
+            };
+        } catch (NumberFormatException ex) {
+            throw new AppException("ERR-202");
+        }
+    }
+
+    /** Identifies a cached offset-paginated listing page. */
+    private record PageKey(int page, int size, TotalMode totalMode, ProductQuery query) {
+    }
+
+    /** Identifies a cached cursor-paginated listing page. */
+    private record CursorKey(String after, int size, ProductQuery query) {
     }
 }
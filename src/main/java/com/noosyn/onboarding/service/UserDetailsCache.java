@@ -0,0 +1,114 @@
+package com.noosyn.onboarding.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded, time-limited cache of {@link UserDetails} keyed by username.
+ * <p>
+ * Used by {@link CustomUserDetailsService} so repeated lookups of the same
+ * user do not hit the database. Entries are evicted by
+ * {@link com.noosyn.onboarding.utils.UserChangeListener} as soon as a user is
+ * created, updated or deleted, so password and role changes take effect
+ * immediately. The TTL only bounds how long an entry can live without being
+ * refreshed.
+ * </p>
+ *
+ * <p>
+ * The loader runs outside of Caffeine's compute methods, which hold a
+ * {@code synchronized} hash bin lock and would pin a virtual thread to its
+ * carrier for the whole database round-trip.
+ * </p>
+ *
+ * <p>
+ * As a {@link MeterBinder}, the cache's hit rate is published on
+ * {@code /actuator/prometheus} under the {@code users} cache name.
+ * </p>
+ *
+ * <p>
+ * Configuration properties:
+ * </p>
+ * <ul>
+ * <li>{@code users.cache.enabled} — turns the cache on or off</li>
+ * <li>{@code users.cache.maxSize} — maximum number of cached users</li>
+ * <li>{@code users.cache.ttl} — time after which an entry is reloaded</li>
+ * </ul>
+ */
+@Component
+public class UserDetailsCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final Cache<String, UserDetails> cache;
+    /** Incremented on every eviction, so loads that overlap one are not cached. */
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserDetailsCache(@Value("${users.cache.enabled:true}") boolean enabled,
+            @Value("${users.cache.maxSize:10000}") long maxSize,
+            @Value("${users.cache.ttl:5m}") Duration ttl) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached user details, loading and caching them on a miss.
+     * <p>
+     * Exceptions thrown by the loader are propagated and nothing is cached.
+     * </p>
+     *
+     * @param username the username to look up
+     * @param loader   loads the user details when they are not cached
+     * @return the user details
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        if (!enabled) {
+            return loader.apply(username);
+        }
+        UserDetails cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = evictions.get();
+        UserDetails loaded = loader.apply(username);
+        cache.asMap().compute(username, (key, current) ->
+                current != null || evictions.get() != generation ? current : loaded);
+        return loaded;
+    }
+
+    /**
+     * Removes the cached entry for a user.
+     *
+     * @param username the username whose entry should be removed
+     */
+    public void evict(String username) {
+        evictions.incrementAndGet();
+        cache.invalidate(username);
+    }
+
+    /**
+     * Publishes the cache's hits, misses, size and evictions as
+     * {@code cache.*} meters tagged {@code cache=users}.
+     *
+     * @param registry the registry to publish to
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "users");
+    }
+}
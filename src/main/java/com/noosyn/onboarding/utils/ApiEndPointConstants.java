@@ -4,11 +4,18 @@ public class ApiEndPointConstants {
     public static final String AUTH_BASE = "/auth";
     public static final String LOGIN = "/login";
     public static final String REGISTER = "/register";
+    public static final String HASHING_STATS = "/hashing/stats";
 
     private ApiEndPointConstants() {
         // Private constructor to prevent instantiation
     }
 
     public static final String PRODUCT_BASE = "/products";
+    public static final String BULK = "/bulk";
+    public static final String EXPORT = "/export";
+    public static final String IMPORT = "/import";
+    public static final String SEARCH = "/search";
+    public static final String AUTOCOMPLETE = "/autocomplete";
+    public static final String CACHE_STATS = "/cache/stats";
 
 }
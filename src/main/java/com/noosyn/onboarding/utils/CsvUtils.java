@@ -0,0 +1,76 @@
+package com.noosyn.onboarding.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 helpers for the product CSV export and import.
+ */
+public final class CsvUtils {
+
+    private CsvUtils() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Quotes a field if it contains a separator, quote or line break.
+     *
+     * @param value the raw field value
+     * @return the value as it should appear in a CSV line
+     */
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Splits a single CSV line into fields, honouring quoted fields and
+     * doubled quotes inside them.
+     * <p>
+     * Quoted fields spanning several lines are not supported, since imports
+     * are read one line at a time.
+     * </p>
+     *
+     * @param line the CSV line without its line terminator
+     * @return the unescaped fields
+     * @throws IllegalArgumentException if a quoted field is not closed
+     */
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,111 @@
+package com.noosyn.onboarding.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.noosyn.onboarding.exception.AppException;
+
+/**
+ * Encodes and decodes the opaque cursors used by keyset pagination.
+ * <p>
+ * A cursor identifies the last row of a page. It is Base64url-encoded so
+ * clients treat it as an opaque token rather than an id they can construct.
+ * </p>
+ *
+ * <p>
+ * Cursors of sorted listings also carry the sort order and the sort value of
+ * the last row, so a page can resume after a row whose sort value is shared
+ * by others. Such a cursor is only accepted for the order it was issued for.
+ * </p>
+ */
+public final class CursorCodec {
+
+    private static final String ID_PREFIX = "id:";
+    private static final String KEY_PREFIX = "k:";
+
+    private CursorCodec() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Encodes the id of the last row of a page.
+     *
+     * @param lastId the id of the last returned row
+     * @return the opaque cursor
+     */
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((ID_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode(long)}.
+     *
+     * @param cursor the opaque cursor; blank means "from the beginning"
+     * @return the id after which the next page starts
+     * @throws AppException with {@code ERR-202} if the cursor is malformed
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(ID_PREFIX)) {
+                throw new AppException("ERR-202");
+            }
+            return Long.parseLong(value.substring(ID_PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new AppException("ERR-202");
+        }
+    }
+
+    /**
+     * Encodes the position of the last row of a sorted page.
+     *
+     * @param order     the sort order of the listing, e.g. {@code "price.asc"};
+     *                  must not contain {@code ':'}
+     * @param lastId    the id of the last returned row
+     * @param lastValue the sort value of the last returned row
+     * @return the opaque cursor
+     */
+    public static String encode(String order, long lastId, String lastValue) {
+        String value = KEY_PREFIX + order + ":" + lastId + ":" + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode(String, long, String)}.
+     *
+     * @param cursor the opaque cursor; blank means "from the beginning"
+     * @param order  the sort order of the listing being paged
+     * @return the position after which the next page starts, or {@code null}
+     *         for the first page
+     * @throws AppException with {@code ERR-202} if the cursor is malformed or
+     *                      was issued for a different sort order
+     */
+    public static Position decode(String cursor, String order) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = value.split(":", 4);
+            if (parts.length != 4 || !value.startsWith(KEY_PREFIX) || !parts[1].equals(order)) {
+                throw new AppException("ERR-202");
+            }
+            return new Position(Long.parseLong(parts[2]), parts[3]);
+        } catch (IllegalArgumentException ex) {
+            throw new AppException("ERR-202");
+        }
+    }
+
+    /**
+     * Position of the last row of a sorted page.
+     *
+     * @param id    the id of the row
+     * @param value the sort value of the row, as encoded
+     */
+    public record Position(long id, String value) {
+    }
+}
@@ -1,19 +1,25 @@
 package com.noosyn.onboarding.utils;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.noosyn.onboarding.service.CustomUserDetailsService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 
 /**
  * Security filter that validates JWT tokens for incoming HTTP requests.
@@ -23,22 +29,67 @@ import lombok.RequiredArgsConstructor;
  * <ul>
  *     <li>Extracts the {@code Authorization} header</li>
  *     <li>Validates the presence and format of the JWT</li>
- *     <li>Extracts the username from the token</li>
- *     <li>Loads the corresponding {@link UserDetails}</li>
- *     <li>Validates the token and sets authentication in the security context</li>
+ *     <li>Verifies the token through {@link VerifiedTokenCache}</li>
+ *     <li>Resolves the {@link UserDetails}, from the claims when possible</li>
+ *     <li>Sets authentication in the security context</li>
  * </ul>
  *
  * <p>
+ * When {@code jwt.stateless} is enabled, tokens that carry roles and a user
+ * version are authenticated from the claims alone. The user table is only
+ * queried when {@link UserVersionRegistry} knows of a newer user version or a
+ * deletion, the first time this instance sees a username, or for older
+ * tokens issued without those claims. Loading the user records its version,
+ * and a username that does not exist is recorded as deleted, so the lookup
+ * happens once rather than on every request.
+ * </p>
+ *
+ * <p>
  * If the token is missing, invalid, or fails validation, the request proceeds
  * without authentication being set.
  * </p>
+ *
+ * <p>
+ * The time spent authenticating, excluding the rest of the chain, is recorded
+ * as {@code jwt.filter} with an {@code outcome} of {@code none} (no bearer
+ * token), {@code authenticated} or {@code rejected}. Verification and user
+ * resolution are also reported as the {@code jwt} and {@code user} phases of
+ * {@link ServerTiming} when that feature is enabled.
+ * </p>
  */
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtils jwtUtils;
-    private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache tokenCache;
+    private final CustomUserDetailsService userDetailsService;
+    private final UserVersionRegistry versionRegistry;
+
+    private final Timer noTokenTimer;
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
+
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
+
+    public JwtAuthenticationFilter(VerifiedTokenCache tokenCache,
+                                   CustomUserDetailsService userDetailsService,
+                                   UserVersionRegistry versionRegistry,
+                                   MeterRegistry registry) {
+        this.tokenCache = tokenCache;
+        this.userDetailsService = userDetailsService;
+        this.versionRegistry = versionRegistry;
+        this.noTokenTimer = timer(registry, "none");
+        this.authenticatedTimer = timer(registry, "authenticated");
+        this.rejectedTimer = timer(registry, "rejected");
+    }
+
+    private static Timer timer(MeterRegistry registry, String outcome) {
+        return Timer.builder("jwt.filter")
+                .description("Time spent authenticating a request from its bearer token")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
 
     /**
      * Processes incoming requests and applies JWT-based authentication if a valid
@@ -55,28 +106,73 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain chain) throws IOException, ServletException {
 
-        String header = request.getHeader("Authorization");
+        long start = System.nanoTime();
+        Timer outcome = authenticate(request.getHeader("Authorization"));
+        outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        chain.doFilter(request, response);
+    }
 
+    /**
+     * Authenticates the request from its {@code Authorization} header.
+     *
+     * @param header the header value, possibly {@code null}
+     * @return the timer of the outcome: no token, authenticated or rejected
+     */
+    private Timer authenticate(String header) {
         // Skip if no Bearer token is provided
         if (header == null || !header.startsWith("Bearer ")) {
-            chain.doFilter(request, response);
-            return;
+            return noTokenTimer;
         }
 
         String token = header.substring(7);
-        String username = jwtUtils.extractUsername(token);
+
+        // Signature and expiration are verified at most once per distinct token
+        long verifyStart = ServerTiming.start();
+        Optional<VerifiedToken> verified = tokenCache.verify(token);
+        ServerTiming.record("jwt", verifyStart);
+        if (verified.isEmpty()) {
+            return rejectedTimer;
+        }
 
         // Authenticate only if no authentication exists in the context
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails user = userDetailsService.loadUserByUsername(username);
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            return authenticatedTimer;
+        }
+        long resolveStart = ServerTiming.start();
+        Optional<UserDetails> user = resolveUser(verified.get());
+        ServerTiming.record("user", resolveStart);
+        user.ifPresent(u -> SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(u, null, u.getAuthorities())));
+        return user.isPresent() ? authenticatedTimer : rejectedTimer;
+    }
 
-            if (jwtUtils.isTokenValid(token, user)) {
-                UsernamePasswordAuthenticationToken auth =
-                        new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
-                SecurityContextHolder.getContext().setAuthentication(auth);
+    /**
+     * Resolves the user a verified token belongs to.
+     *
+     * @param token the verified token
+     * @return the user details, or an empty {@link Optional} if the token was
+     *         issued for an outdated user version or a deleted user
+     */
+    private Optional<UserDetails> resolveUser(VerifiedToken token) {
+        String username = token.username();
+
+        if (!stateless || !token.isSelfContained()) {
+            return Optional.of(userDetailsService.loadUserByUsername(username));
+        }
+
+        if (versionRegistry.isStale(username, token.userVersion())) {
+            Optional<UserDetails> user = userDetailsService.loadUserIfCurrent(username, token.userVersion());
+            if (user.isEmpty()) {
+                // No-op when the user exists and its newer version was recorded while loading
+                versionRegistry.recordMissing(username);
             }
+            return user;
         }
 
-        chain.doFilter(request, response);
+        return Optional.of(User.withUsername(username)
+                .password("")
+                .authorities(token.roles().toArray(String[]::new))
+                .build());
     }
 }
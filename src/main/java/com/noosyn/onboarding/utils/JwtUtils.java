@@ -1,17 +1,27 @@
 package com.noosyn.onboarding.utils;
 
 import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.security.Key;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 
 /**
  * Utility class responsible for generating and validating JWT tokens.
@@ -23,9 +33,23 @@ import io.jsonwebtoken.security.Keys;
  *     <li>Token parsing and claim extraction</li>
  *     <li>Expiration validation</li>
  *     <li>Username extraction for authentication</li>
+ *     <li>Embedding roles and the user version for stateless authentication</li>
  * </ul>
  * 
  * <p>
+ * The signing key and the {@link JwtParser} are built once at startup. Both are
+ * immutable and thread-safe, so every request reuses them instead of decoding
+ * the secret and creating a new parser per call.
+ * </p>
+ *
+ * <p>
+ * Token generation and verification are timed as {@code jwt.tokens}, tagged
+ * with the {@code operation} and, for verification, whether the token was
+ * {@code valid} or {@code invalid}. Each verification is also recorded as a
+ * {@link TokenVerificationEvent} for Flight Recorder.
+ * </p>
+ *
+ * <p>
  * Configuration properties:
  * </p>
  * <ul>
@@ -36,20 +60,57 @@ import io.jsonwebtoken.security.Keys;
 @Component
 public class JwtUtils {
 
+    /** Claim holding the granted authorities, e.g. {@code ROLE_USER}. */
+    public static final String CLAIM_ROLES = "roles";
+
+    /** Claim holding the {@code User.version} the token was issued for. */
+    public static final String CLAIM_USER_VERSION = "ver";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     @Value("${jwt.expirationMs}")
     private long expirationTime;
 
+    private Key signingKey;
+
+    private JwtParser parser;
+
+    private final Timer generateTimer;
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+
     /**
-     * Converts the Base64-encoded secret into a {@link Key} suitable for HMAC signing.
+     * Creates the token utilities and registers their timers.
      *
-     * @return the cryptographic signing key
+     * @param registry the registry the token timers are published to
+     */
+    public JwtUtils(MeterRegistry registry) {
+        this.generateTimer = timer(registry, "generate", "success");
+        this.validTimer = timer(registry, "verify", "valid");
+        this.invalidTimer = timer(registry, "verify", "invalid");
+    }
+
+    private static Timer timer(MeterRegistry registry, String operation, String outcome) {
+        return Timer.builder("jwt.tokens")
+                .description("JWT generation and signature verification")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Decodes the Base64-encoded secret and builds the signing key and parser
+     * once the configuration properties have been injected.
      */
-    private Key getSigningKey() {
+    @PostConstruct
+    void init() {
         byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     /**
@@ -59,14 +120,69 @@ public class JwtUtils {
      * @return a signed JWT token string
      */
     public String generateToken(UserDetails user) {
+        return generateToken(user, null);
+    }
+
+    /**
+     * Generates a signed JWT token that carries the user's roles and version.
+     * <p>
+     * Tokens containing both claims can be authenticated from the claims
+     * alone, without loading the user from the database.
+     * </p>
+     *
+     * @param user        the authenticated user for whom the token is created
+     * @param userVersion the current {@code User.version}, or {@code null} to
+     *                    issue a token that always requires a user lookup
+     * @return a signed JWT token string
+     */
+    public String generateToken(UserDetails user, Long userVersion) {
+        return generateTimer.record(() -> buildToken(user, userVersion));
+    }
+
+    private String buildToken(UserDetails user, Long userVersion) {
+        List<String> roles = user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+
         return Jwts.builder()
                 .setSubject(user.getUsername())
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_USER_VERSION, userVersion)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies the token signature and expiration exactly once and returns its
+     * claims.
+     * <p>
+     * The parser rejects expired tokens on its own, so a present result is
+     * always a token that can be trusted for the rest of the request.
+     * </p>
+     *
+     * @param token the JWT token to verify
+     * @return the verified claims, or an empty {@link Optional} if the token is
+     *         malformed, tampered with or expired
+     */
+    public Optional<Claims> validateToken(String token) {
+        TokenVerificationEvent event = new TokenVerificationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            Claims claims = extractAllClaims(token);
+            validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.valid = true;
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException ex) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.empty();
+        } finally {
+            event.commit();
+        }
+    }
+
     /**
      * Extracts all claims contained within the JWT token.
      *
@@ -75,11 +191,7 @@ public class JwtUtils {
      * @throws io.jsonwebtoken.JwtException if the token is invalid or tampered with
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     /**
@@ -98,25 +210,29 @@ public class JwtUtils {
      *     <li>The username matches the user details</li>
      *     <li>The token is not expired</li>
      * </ul>
+     * <p>
+     * The token is parsed a single time; prefer {@link #validateToken(String)}
+     * when the claims are needed as well.
+     * </p>
      *
      * @param token        the JWT token to validate
      * @param userDetails  the user details to compare against
      * @return true if the token is valid, false otherwise
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isExpired(token);
+        return validateToken(token)
+                .map(claims -> Objects.equals(userDetails.getUsername(), claims.getSubject())
+                        && !isExpired(claims))
+                .orElse(false);
     }
 
     /**
-     * Checks whether the token has expired.
+     * Checks whether the verified claims have expired.
      *
-     * @param token the JWT token
+     * @param claims the verified token claims
      * @return true if the token is expired, false otherwise
      */
-    private boolean isExpired(String token) {
-        return extractAllClaims(token)
-                .getExpiration()
-                .before(new Date());
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 }
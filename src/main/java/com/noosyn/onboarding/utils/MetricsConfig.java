@@ -0,0 +1,35 @@
+package com.noosyn.onboarding.utils;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configures Micrometer instrumentation.
+ * <p>
+ * Registers the {@link TimedAspect}, which turns {@code @Timed} on service
+ * classes and methods into timers. Each timer is tagged with the class, the
+ * method and the exception thrown (or {@code none}), so the number of series
+ * stays bounded by the code rather than by the requests.
+ * </p>
+ *
+ * <p>
+ * Meters are published in Prometheus format at {@code /actuator/prometheus}.
+ * </p>
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Enables {@code @Timed} on Spring beans.
+     *
+     * @param registry the application meter registry
+     * @return the aspect recording {@code @Timed} methods
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,38 @@
+package com.noosyn.onboarding.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for a BCrypt hash or check run by
+ * {@code PasswordHasher}.
+ * <p>
+ * The event is emitted on the hashing thread, so its duration is the BCrypt
+ * work alone; the time the call waited for a hashing thread is reported in
+ * {@code queueWait}.
+ * </p>
+ */
+@Name("com.noosyn.onboarding.PasswordCheck")
+@Label("Password Check")
+@Category({ "Onboarding", "Auth" })
+@Description("BCrypt hash or verification on the hashing pool")
+@StackTrace(false)
+public class PasswordCheckEvent extends Event {
+
+    @Label("Operation")
+    @Description("encode or matches")
+    public String operation;
+
+    @Label("Matched")
+    @Description("Whether the password matched; always false for encode")
+    public boolean matched;
+
+    @Label("Queue Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    public long queueWait;
+}
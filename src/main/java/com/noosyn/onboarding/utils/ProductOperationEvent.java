@@ -0,0 +1,72 @@
+package com.noosyn.onboarding.utils;
+
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a {@code ProductService} operation.
+ * <p>
+ * Records the operation name, the product id for single-product operations
+ * and the number of products returned or written. Operations that throw are
+ * recorded with {@code failed} set.
+ * </p>
+ */
+@Name("com.noosyn.onboarding.ProductOperation")
+@Label("Product Operation")
+@Category({ "Onboarding", "Products" })
+@Description("ProductService operation with the product id and row count")
+@StackTrace(false)
+public class ProductOperationEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Product Id")
+    @Description("Id of the product, or 0 for creates, listings and batches")
+    public long productId;
+
+    @Label("Rows")
+    @Description("Products returned or written")
+    public int rows;
+
+    @Label("Failed")
+    public boolean failed;
+
+    /**
+     * Runs an operation inside a committed event. When the event type is
+     * disabled the operation runs directly.
+     *
+     * @param operation the operation name
+     * @param productId the product id, or {@code 0}
+     * @param action    the operation
+     * @param rows      counts the products in the result
+     * @param <T>       the result type
+     * @return the result of the operation
+     */
+    public static <T> T record(String operation, long productId, Supplier<T> action, ToIntFunction<T> rows) {
+        ProductOperationEvent event = new ProductOperationEvent();
+        if (!event.isEnabled()) {
+            return action.get();
+        }
+        event.operation = operation;
+        event.productId = productId;
+        event.begin();
+        try {
+            T result = action.get();
+            event.rows = rows.applyAsInt(result);
+            return result;
+        } catch (RuntimeException ex) {
+            event.failed = true;
+            throw ex;
+        } finally {
+            event.commit();
+        }
+    }
+}
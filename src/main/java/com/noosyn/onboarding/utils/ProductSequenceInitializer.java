@@ -0,0 +1,87 @@
+package com.noosyn.onboarding.utils;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.noosyn.onboarding.entity.Product;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves {@code product_seq} past the ids already present in the
+ * {@code product} table.
+ * <p>
+ * Product ids used to come from an identity column. If the sequence were
+ * first created by schema update it would start at 1 and hand out ids that
+ * are already taken, so it is created, or restarted, above the highest
+ * existing id, leaving room for one pooled allocation block.
+ * </p>
+ *
+ * <p>
+ * This runs when the bean is initialized, and the entity manager factory
+ * depends on it, so the sequence is aligned before Hibernate updates the
+ * schema and before the web server accepts any request that could draw an
+ * id. On an empty database there is no {@code product} table yet and nothing
+ * to align.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ProductSequenceInitializer implements InitializingBean {
+
+    private final JdbcTemplate jdbc;
+
+    public ProductSequenceInitializer(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        try {
+            if (!exists("BASE TABLE", "product")) {
+                return;
+            }
+            Long maxId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM product", Long.class);
+            long safeStart = maxId + Product.ID_ALLOCATION_SIZE + 1;
+
+            if (!exists("SEQUENCE", "product_seq")) {
+                jdbc.execute("CREATE SEQUENCE product_seq START WITH " + safeStart
+                        + " INCREMENT BY " + Product.ID_ALLOCATION_SIZE);
+                log.info("Created product_seq at {} (max product id {})", safeStart, maxId);
+                return;
+            }
+
+            Long next = jdbc.queryForObject("SELECT next_not_cached_value FROM product_seq", Long.class);
+            if (next != null && next < safeStart) {
+                jdbc.execute("ALTER SEQUENCE product_seq RESTART WITH " + safeStart);
+                log.info("Restarted product_seq at {} (max product id {})", safeStart, maxId);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Could not align product_seq with existing product ids: {}", ex.getMessage());
+        }
+    }
+
+    private boolean exists(String type, String name) {
+        Integer count = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables"
+                        + " WHERE table_schema = DATABASE() AND table_type = ? AND table_name = ?",
+                Integer.class, type, name);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Makes the entity manager factory wait for {@link ProductSequenceInitializer}.
+     */
+    @Component
+    static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependency() {
+            super(ProductSequenceInitializer.class);
+        }
+    }
+}
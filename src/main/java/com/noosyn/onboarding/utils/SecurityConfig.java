@@ -46,6 +46,8 @@ public class SecurityConfig {
      * <li>Disabling CSRF (since JWT is used instead of cookies)</li>
      * <li>Stateless session management</li>
      * <li>Permitting public access to authentication endpoints</li>
+     * <li>Permitting health checks without a token; Prometheus scrapes need
+     * the {@code ADMIN} role</li>
      * <li>Requiring authentication for all other requests</li>
      * <li>Registering the custom JWT filter before the username/password
      * filter</li>
@@ -67,10 +69,18 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PUT, "/products/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/products/**").hasRole("ADMIN")
 
+                        // Cache statistics are operational data
+                        .requestMatchers(HttpMethod.GET, "/products/cache/**").hasRole("ADMIN")
+
                         // CUSTOMER and ADMIN both can view products
                         .requestMatchers(HttpMethod.GET, "/products/**").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/auth/hashing/**").hasRole("ADMIN")
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers("/error").permitAll()
+
+                        // Health checks carry no JWT; metrics expose internal latency and pool data
+                        .requestMatchers(HttpMethod.GET, "/actuator/health/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/actuator/prometheus").hasRole("ADMIN")
                         .anyRequest().authenticated())
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
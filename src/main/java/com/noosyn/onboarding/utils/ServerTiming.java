@@ -0,0 +1,146 @@
+package com.noosyn.onboarding.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Per-request recorder of phase durations, published as a
+ * {@code Server-Timing} header by {@link ServerTimingFilter}.
+ * <p>
+ * The recorder of the current request is held in a thread local bound by the
+ * filter. Code on the request path measures a phase with
+ * </p>
+ * <pre>
+ * long start = ServerTiming.start();
+ * ...
+ * ServerTiming.record("jwt", start);
+ * </pre>
+ * <p>
+ * When the feature is disabled no recorder is bound, {@link #start()} returns
+ * {@code 0} without reading the clock and {@link #record(String, long)}
+ * returns immediately. Repeated phases, such as several repository calls,
+ * are summed and counted.
+ * </p>
+ *
+ * <p>
+ * A recorder belongs to a single request thread and is not thread-safe.
+ * </p>
+ */
+public final class ServerTiming {
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+    private long serializationStart;
+    private long totalNanos = -1;
+
+    /**
+     * Binds a new recorder to the current thread.
+     *
+     * @return the bound recorder
+     */
+    static ServerTiming begin() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * Unbinds the recorder of the current thread and stops its total clock.
+     */
+    void end() {
+        CURRENT.remove();
+        long now = System.nanoTime();
+        if (serializationStart != 0) {
+            add("serialize", now - serializationStart);
+        }
+        totalNanos = now - startNanos;
+    }
+
+    /**
+     * Starts measuring a phase.
+     *
+     * @return the start time, or {@code 0} if no recorder is bound
+     */
+    public static long start() {
+        return CURRENT.get() == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Records a phase started with {@link #start()}.
+     *
+     * @param phase      the phase name; must be a valid header token
+     * @param startNanos the value returned by {@link #start()}
+     */
+    public static void record(String phase, long startNanos) {
+        if (startNanos == 0) {
+            return;
+        }
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(phase, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Marks the start of response serialization. The phase ends when the
+     * recorder is unbound.
+     */
+    public static void serializationStarted() {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null && timing.serializationStart == 0) {
+            timing.serializationStart = System.nanoTime();
+        }
+    }
+
+    void add(String phase, long nanos) {
+        Phase p = phases.computeIfAbsent(phase, k -> new Phase());
+        p.nanos += nanos;
+        p.count++;
+    }
+
+    /**
+     * Formats the phases as a {@code Server-Timing} header value, e.g.
+     * {@code jwt;dur=0.41, db;dur=3.20;desc="2 calls", total;dur=5.87}.
+     *
+     * @return the header value
+     */
+    String header() {
+        StringJoiner header = new StringJoiner(", ");
+        phases.forEach((name, p) -> header.add(p.count > 1
+                ? name + ";dur=" + millis(p.nanos) + ";desc=\"" + p.count + " calls\""
+                : name + ";dur=" + millis(p.nanos)));
+        header.add("total;dur=" + millis(totalNanos));
+        return header.toString();
+    }
+
+    /**
+     * Formats the phases as {@code key=value} log fields, e.g.
+     * {@code jwt_ms=0.41 db_ms=3.20 db_calls=2 total_ms=5.87}.
+     *
+     * @return the log fields
+     */
+    String logFields() {
+        StringJoiner fields = new StringJoiner(" ");
+        phases.forEach((name, p) -> {
+            fields.add(name + "_ms=" + millis(p.nanos));
+            if (p.count > 1) {
+                fields.add(name + "_calls=" + p.count);
+            }
+        });
+        fields.add("total_ms=" + millis(totalNanos));
+        return fields.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+
+    private static final class Phase {
+        private long nanos;
+        private int count;
+    }
+}
@@ -0,0 +1,40 @@
+package com.noosyn.onboarding.utils;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records every Spring Data repository call as the {@code db} phase of the
+ * current {@link ServerTiming}.
+ * <p>
+ * Covers the queries behind {@code ProductService}, including those run by
+ * cache loaders on the request thread, as well as user lookups. Calls on
+ * other threads, such as background index loads, have no recorder and are
+ * not counted. Only registered when {@code server-timing.enabled} is set.
+ * </p>
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "server-timing", name = "enabled", havingValue = "true")
+public class ServerTimingAspect {
+
+    /**
+     * Times a repository call.
+     *
+     * @param call the repository call
+     * @return the result of the call
+     * @throws Throwable whatever the call throws
+     */
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object timeRepositoryCall(ProceedingJoinPoint call) throws Throwable {
+        long start = ServerTiming.start();
+        try {
+            return call.proceed();
+        } finally {
+            ServerTiming.record("db", start);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.noosyn.onboarding.utils;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Filter adding a {@code Server-Timing} header with a per-phase latency
+ * breakdown to every response.
+ * <p>
+ * The filter runs before Spring Security, so the breakdown covers the whole
+ * request. It binds a {@link ServerTiming} recorder for the request, which
+ * collects the following phases:
+ * </p>
+ * <ul>
+ *     <li>{@code jwt} – token verification in {@link JwtAuthenticationFilter}</li>
+ *     <li>{@code user} – resolving the token's user, including any lookup</li>
+ *     <li>{@code db} – every repository call, summed, see {@link ServerTimingAspect}</li>
+ *     <li>{@code serialize} – writing the response body, see {@link ServerTimingAdvice}</li>
+ *     <li>{@code total} – the whole request as seen by this filter</li>
+ * </ul>
+ *
+ * <p>
+ * The response body is buffered so the header can include serialization;
+ * the streaming export is therefore left out. A sample of requests, set by
+ * {@code server-timing.logSampleRate}, is also logged as one line of
+ * {@code key=value} fields.
+ * </p>
+ *
+ * <p>
+ * The feature is off unless {@code server-timing.enabled} is set. When off,
+ * this filter, the aspect and the advice are not registered, and the phase
+ * calls in the JWT filter reduce to a thread-local read.
+ * </p>
+ */
+@Slf4j
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+@ConditionalOnProperty(prefix = "server-timing", name = "enabled", havingValue = "true")
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    @Value("${server-timing.logSampleRate:0.01}")
+    private double logSampleRate;
+
+    /**
+     * Skips the streaming export, whose body must not be buffered.
+     *
+     * @param request the incoming HTTP request
+     * @return {@code true} for the export endpoint
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().endsWith(ApiEndPointConstants.PRODUCT_BASE + ApiEndPointConstants.EXPORT);
+    }
+
+    /**
+     * Records the request phases and adds them to the response.
+     *
+     * @param request  the incoming HTTP request
+     * @param response the outgoing HTTP response
+     * @param chain    the filter chain for continuing request processing
+     * @throws IOException      if an input/output error occurs
+     * @throws ServletException if request processing fails
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws IOException, ServletException {
+
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        ServerTiming timing = ServerTiming.begin();
+        try {
+            chain.doFilter(request, buffered);
+        } finally {
+            timing.end();
+            // Responses committed by sendError cannot take the header; the log line still has the phases
+            if (!response.isCommitted()) {
+                buffered.setHeader(HEADER, timing.header());
+            }
+            buffered.copyBodyToResponse();
+
+            if (log.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+                log.info("server-timing method={} uri={} status={} {}",
+                        request.getMethod(), request.getRequestURI(), buffered.getStatus(), timing.logFields());
+            }
+        }
+    }
+}
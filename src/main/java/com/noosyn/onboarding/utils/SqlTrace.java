@@ -0,0 +1,20 @@
+package com.noosyn.onboarding.utils;
+
+/**
+ * One traced SQL statement, as captured by {@link SqlTracer}.
+ *
+ * @param sql       the statement text, without parameter values
+ * @param nanos     the time spent in the execute call
+ * @param rows      the rows written, or {@code -1} for queries
+ * @param slow      whether the statement reached the slow-query threshold
+ * @param timestamp when the statement finished, in epoch milliseconds
+ * @param thread    the name of the thread that ran the statement
+ */
+public record SqlTrace(
+        String sql,
+        long nanos,
+        long rows,
+        boolean slow,
+        long timestamp,
+        String thread) {
+}
@@ -0,0 +1,111 @@
+package com.noosyn.onboarding.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free ring buffer of {@link SqlTrace}s with many producers and
+ * a single consumer.
+ * <p>
+ * Every slot carries a sequence number. A producer claims the next position
+ * with one compare-and-set on the tail and publishes its entry by advancing
+ * the slot's sequence; the consumer reads a slot only once its sequence shows
+ * it was published, then hands the slot back for the next lap. Producers never
+ * wait: when the buffer is full the entry is dropped and counted, so tracing
+ * cannot slow down the statements it observes.
+ * </p>
+ */
+public class SqlTraceBuffer {
+
+    private final int mask;
+    private final AtomicReferenceArray<SqlTrace> entries;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    /** Next position to read; only touched by the consumer. */
+    private long head;
+
+    /**
+     * @param capacity the number of slots, rounded up to a power of two
+     */
+    public SqlTraceBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.entries = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an entry without blocking.
+     *
+     * @param trace the entry
+     * @return {@code false} if the buffer was full and the entry was dropped
+     */
+    public boolean offer(SqlTrace trace) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    entries.lazySet(index, trace);
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+            } else if (available < 0) {
+                dropped.increment();
+                return false;
+            }
+            // Another producer claimed this position; retry with the new tail
+        }
+    }
+
+    /**
+     * Removes up to {@code max} entries in the order they were added. Must only
+     * be called from one thread at a time.
+     *
+     * @param sink receives the entries
+     * @param max  the maximum number of entries to remove
+     * @return the number of entries removed
+     */
+    public int drain(Consumer<SqlTrace> sink, int max) {
+        int count = 0;
+        while (count < max) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            SqlTrace trace = entries.get(index);
+            entries.lazySet(index, null);
+            sequences.lazySet(index, head + mask + 1);
+            head++;
+            sink.accept(trace);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns and resets the number of entries dropped because the buffer was
+     * full.
+     *
+     * @return the entries dropped since the last call
+     */
+    public long takeDropped() {
+        return dropped.sumThenReset();
+    }
+
+    /**
+     * @return the number of slots
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,168 @@
+package com.noosyn.onboarding.utils;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Low-overhead SQL statement tracing, replacing {@code show-sql} and the
+ * Hibernate {@code DEBUG}/{@code TRACE} loggers.
+ * <p>
+ * {@link SqlTracingDataSource} reports every prepared statement with the
+ * time spent in its execute call and, for writes, its row count; queries
+ * carry no row count. A statement is kept when it reaches the slow-query
+ * threshold or is picked by sampling; anything else is discarded before it
+ * allocates.
+ * Kept statements go into a lock-free {@link SqlTraceBuffer}, and a single
+ * background thread drains it in batches and writes the log. The statement
+ * thread never formats, logs or blocks, and when the buffer is full entries
+ * are dropped and reported as a count.
+ * </p>
+ *
+ * <p>
+ * Log lines are {@code key=value} fields: slow statements at {@code WARN},
+ * sampled ones at {@code INFO}. Parameter values are never captured.
+ * </p>
+ *
+ * <p>
+ * Configuration properties:
+ * </p>
+ * <ul>
+ *     <li>{@code sql-trace.enabled} — installs the tracing data source; off by default</li>
+ *     <li>{@code sql-trace.slowThreshold} — statements at least this slow are always logged</li>
+ *     <li>{@code sql-trace.sampleRate} — fraction of other statements logged, 0 to 1</li>
+ *     <li>{@code sql-trace.bufferSize} — entries waiting to be logged</li>
+ *     <li>{@code sql-trace.drainInterval} — how often the buffer is drained</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "sql-trace", name = "enabled", havingValue = "true")
+public class SqlTracer {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+    private final long drainIntervalMillis;
+    private final SqlTraceBuffer buffer;
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder slow = new LongAdder();
+
+    private ScheduledExecutorService drainer;
+
+    public SqlTracer(@Value("${sql-trace.slowThreshold:200ms}") Duration slowThreshold,
+            @Value("${sql-trace.sampleRate:0}") double sampleRate,
+            @Value("${sql-trace.bufferSize:4096}") int bufferSize,
+            @Value("${sql-trace.drainInterval:500ms}") Duration drainInterval) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.drainIntervalMillis = Math.max(1, drainInterval.toMillis());
+        this.buffer = new SqlTraceBuffer(bufferSize);
+    }
+
+    @PostConstruct
+    void start() {
+        drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sql-trace-drain");
+            thread.setDaemon(true);
+            return thread;
+        });
+        drainer.scheduleWithFixedDelay(this::drainToLog, drainIntervalMillis, drainIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (drainer != null) {
+            drainer.shutdown();
+        }
+        drainToLog();
+    }
+
+    /**
+     * Reports an executed statement. Called on the statement thread, so it
+     * only decides whether to keep the statement and, if so, enqueues it.
+     *
+     * @param sql   the statement text
+     * @param nanos the time spent in the execute call
+     * @param rows  the rows written, or {@code -1} for queries
+     */
+    public void record(String sql, long nanos, long rows) {
+        statements.increment();
+        boolean isSlow = nanos >= slowThresholdNanos;
+        if (isSlow) {
+            slow.increment();
+        } else if (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        buffer.offer(new SqlTrace(sql, nanos, rows, isSlow, System.currentTimeMillis(),
+                Thread.currentThread().getName()));
+    }
+
+    /**
+     * @return the number of statements reported, kept or not
+     */
+    public long statementCount() {
+        return statements.sum();
+    }
+
+    /**
+     * @return the number of statements that reached the slow-query threshold
+     */
+    public long slowCount() {
+        return slow.sum();
+    }
+
+    /**
+     * Removes the waiting entries, at most one buffer's worth so a drain
+     * always ends. Must only be called from one thread at a time; the drainer
+     * thread is the only caller once started.
+     *
+     * @param sink receives the entries in the order they were recorded
+     * @return the number of entries removed
+     */
+    int drain(Consumer<SqlTrace> sink) {
+        return buffer.drain(sink, buffer.capacity());
+    }
+
+    private void drainToLog() {
+        try {
+            drain(SqlTracer::log);
+            long dropped = buffer.takeDropped();
+            if (dropped > 0) {
+                log.warn("sql-trace dropped={} reason=buffer-full capacity={}", dropped, buffer.capacity());
+            }
+        } catch (RuntimeException ex) {
+            // An exception would cancel the scheduled drain
+            log.error("sql-trace drain failed", ex);
+        }
+    }
+
+    private static void log(SqlTrace trace) {
+        String ms = String.format(Locale.ROOT, "%.2f", trace.nanos() / 1_000_000.0);
+        String sql = WHITESPACE.matcher(trace.sql()).replaceAll(" ").trim();
+        if (trace.slow()) {
+            log.warn("sql-trace slow=true ms={} rows={} thread={} at={} sql=\"{}\"",
+                    ms, trace.rows(), trace.thread(), trace.timestamp(), sql);
+        } else {
+            log.info("sql-trace slow=false ms={} rows={} thread={} at={} sql=\"{}\"",
+                    ms, trace.rows(), trace.thread(), trace.timestamp(), sql);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.noosyn.onboarding.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source that reports every executed prepared statement to {@link SqlTracer}.
+ * <p>
+ * Connections and the statements they prepare are wrapped in JDK proxies
+ * that intercept only {@code prepareStatement} and the {@code execute*}
+ * methods. Result sets are not wrapped, so:
+ * </p>
+ * <ul>
+ *     <li>every statement is timed around its execute call only; the time a
+ *     caller then spends reading a result set is not included, so a long
+ *     streaming read such as the catalog export is not reported as slow</li>
+ *     <li>updates and batches report their update counts as rows; queries
+ *     report no row count ({@code rows = -1})</li>
+ * </ul>
+ *
+ * <p>
+ * Plain {@code Statement}s, which Hibernate only uses for schema management,
+ * are not traced. Every other call goes straight to the driver. The pool
+ * behind this data source is still reachable through
+ * {@link DelegatingDataSource}, so pool metrics keep working.
+ * </p>
+ */
+public class SqlTracingDataSource extends DelegatingDataSource {
+
+    private final SqlTracer tracer;
+
+    public SqlTracingDataSource(DataSource target, SqlTracer tracer) {
+        super(target);
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection connection(Connection target) {
+        return proxy(Connection.class, target, new ConnectionHandler(target));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SqlTracingDataSource.class.getClassLoader(), new Class<?>[] { type },
+                handler);
+    }
+
+    /**
+     * Calls the wrapped object. {@code equals} and {@code hashCode} use the
+     * identity of the proxy, so proxies work as keys in hash maps.
+     */
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlTracingDataSource.invoke(proxy, target, method, args);
+            if (method.getName().equals("prepareStatement")) {
+                PreparedStatement statement = (PreparedStatement) result;
+                return proxy(PreparedStatement.class, statement, new StatementHandler(statement, (String) args[0]));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                return SqlTracingDataSource.invoke(proxy, target, method, args);
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            long start = System.nanoTime();
+            Object result = SqlTracingDataSource.invoke(proxy, target, method, args);
+            long nanos = System.nanoTime() - start;
+
+            switch (name) {
+                case "executeUpdate", "executeLargeUpdate" -> tracer.record(sql, nanos, ((Number) result).longValue());
+                case "executeBatch" -> tracer.record(sql, nanos, sum((int[]) result));
+                case "executeLargeBatch" -> tracer.record(sql, nanos, sum((long[]) result));
+                default -> tracer.record(sql, nanos, -1);
+            }
+            return result;
+        }
+
+        private static long sum(int[] counts) {
+            long rows = 0;
+            for (int count : counts) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+
+        private static long sum(long[] counts) {
+            long rows = 0;
+            for (long count : counts) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.noosyn.onboarding.utils;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps every {@link DataSource} bean in a {@link SqlTracingDataSource}.
+ * <p>
+ * Only registered when {@code sql-trace.enabled} is set; otherwise the
+ * application talks to the connection pool directly.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "sql-trace", name = "enabled", havingValue = "true")
+public class SqlTracingDataSourcePostProcessor implements BeanPostProcessor {
+
+    /** Resolved lazily so this post-processor does not create beans early. */
+    private final ObjectProvider<SqlTracer> tracer;
+
+    public SqlTracingDataSourcePostProcessor(ObjectProvider<SqlTracer> tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof SqlTracingDataSource)) {
+            return new SqlTracingDataSource(dataSource, tracer.getObject());
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,27 @@
+package com.noosyn.onboarding.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a JWT signature and expiration check in
+ * {@link JwtUtils}.
+ * <p>
+ * Only tokens missing from {@link VerifiedTokenCache} are verified, so a
+ * burst of these events points at cache misses or a flood of invalid tokens.
+ * </p>
+ */
+@Name("com.noosyn.onboarding.TokenVerification")
+@Label("Token Verification")
+@Category({ "Onboarding", "Auth" })
+@Description("JWT signature and expiration check")
+@StackTrace(false)
+public class TokenVerificationEvent extends Event {
+
+    @Label("Valid")
+    public boolean valid;
+}
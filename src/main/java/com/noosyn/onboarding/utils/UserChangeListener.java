@@ -0,0 +1,66 @@
+package com.noosyn.onboarding.utils;
+
+import org.springframework.stereotype.Component;
+
+import com.noosyn.onboarding.entity.User;
+import com.noosyn.onboarding.service.UserDetailsCache;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JPA entity listener that keeps in-memory authentication state in sync with
+ * {@link User} rows.
+ * <p>
+ * Hibernate resolves this listener as a Spring bean, so every code path that
+ * loads or writes a user goes through it without having to call it explicitly.
+ * This covers registration in {@code AuthService} as well as any admin path
+ * that changes a password or role.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class UserChangeListener {
+
+    private final UserVersionRegistry versionRegistry;
+    private final UserDetailsCache userDetailsCache;
+
+    /**
+     * Records the version of a user read from the database.
+     *
+     * @param user the loaded user
+     */
+    @PostLoad
+    public void onLoad(User user) {
+        versionRegistry.record(user.getUsername(), user.getVersion());
+    }
+
+    /**
+     * Records the new version of a written user and evicts its cached
+     * {@code UserDetails}, so a new password or role is picked up by the next
+     * lookup.
+     *
+     * @param user the created or updated user
+     */
+    @PostPersist
+    @PostUpdate
+    public void onWrite(User user) {
+        versionRegistry.record(user.getUsername(), user.getVersion());
+        userDetailsCache.evict(user.getUsername());
+    }
+
+    /**
+     * Records a tombstone for a deleted user, so its tokens are no longer
+     * trusted from their claims, and evicts its cached {@code UserDetails}.
+     *
+     * @param user the deleted user
+     */
+    @PostRemove
+    public void onRemove(User user) {
+        versionRegistry.recordDeleted(user.getUsername());
+        userDetailsCache.evict(user.getUsername());
+    }
+}
@@ -0,0 +1,34 @@
+package com.noosyn.onboarding.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for resolving a user's {@code UserDetails} in
+ * {@code CustomUserDetailsService}.
+ * <p>
+ * {@code cached} tells a {@code UserDetailsCache} hit apart from a lookup
+ * that went to the database.
+ * </p>
+ */
+@Name("com.noosyn.onboarding.UserLookup")
+@Label("User Lookup")
+@Category({ "Onboarding", "Auth" })
+@Description("Load of a user's details by username")
+@StackTrace(false)
+public class UserLookupEvent extends Event {
+
+    @Label("Username")
+    public String username;
+
+    @Label("Cached")
+    @Description("Served from UserDetailsCache without a query")
+    public boolean cached;
+
+    @Label("Found")
+    public boolean found;
+}
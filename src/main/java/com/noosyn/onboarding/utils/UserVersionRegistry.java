@@ -0,0 +1,75 @@
+package com.noosyn.onboarding.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory record of the latest known {@code User.version} per username.
+ * <p>
+ * Populated by {@link UserChangeListener} whenever a user is loaded, created,
+ * updated or deleted. {@link JwtAuthenticationFilter} consults it to decide
+ * whether the version embedded in a token can be trusted without a database
+ * lookup.
+ * </p>
+ *
+ * <p>
+ * The registry starts empty on every instance and after every restart, so a
+ * username it has not seen yet must be verified against the database once;
+ * loading the user records its version. Deleted and missing users are kept
+ * as tombstones, so their tokens are never trusted from the claims alone.
+ * </p>
+ */
+@Component
+public class UserVersionRegistry {
+
+    /** Version recorded for deleted or missing users; newer than any token. */
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Records the given version, keeping the highest version seen so far. A
+     * tombstone is replaced, since a user read from the database exists.
+     *
+     * @param username the username of the user
+     * @param version  the version currently stored in the database
+     */
+    public void record(String username, long version) {
+        versions.merge(username, version, (known, seen) -> known == DELETED ? seen : Math.max(known, seen));
+    }
+
+    /**
+     * Records that a user was deleted, making every token issued for it stale.
+     *
+     * @param username the username of the deleted user
+     */
+    public void recordDeleted(String username) {
+        versions.put(username, DELETED);
+    }
+
+    /**
+     * Records that a username was looked up and does not exist, unless a
+     * version was recorded for it in the meantime.
+     *
+     * @param username the username that was not found
+     */
+    public void recordMissing(String username) {
+        versions.putIfAbsent(username, DELETED);
+    }
+
+    /**
+     * Checks whether a token must be verified against the database before
+     * its claims can be trusted.
+     *
+     * @param username     the username of the token subject
+     * @param tokenVersion the user version embedded in the token
+     * @return true if the username is unknown, deleted, or a newer version of
+     *         the user is known
+     */
+    public boolean isStale(String username, long tokenVersion) {
+        Long known = versions.get(username);
+        return known == null || known > tokenVersion;
+    }
+}
@@ -0,0 +1,60 @@
+package com.noosyn.onboarding.utils;
+
+import java.time.Instant;
+import java.util.List;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Immutable view of a JWT whose signature and expiration have been verified.
+ * <p>
+ * Holds only what authentication needs, so it can be cached and shared across
+ * requests without keeping the parsed {@link Claims} around.
+ * </p>
+ *
+ * @param username    the token subject
+ * @param roles       the granted authorities, or {@code null} if the token was
+ *                    issued without them
+ * @param userVersion the user version the token was issued for, or
+ *                    {@code null} if absent
+ * @param expiresAt   the instant at which the token expires
+ */
+public record VerifiedToken(String username, List<String> roles, Long userVersion, Instant expiresAt) {
+
+    /**
+     * Builds a {@link VerifiedToken} from verified claims.
+     *
+     * @param claims the claims returned by {@link JwtUtils#validateToken(String)}
+     * @return the corresponding verified token
+     */
+    public static VerifiedToken from(Claims claims) {
+        List<String> roles = claims.get(JwtUtils.CLAIM_ROLES) instanceof List<?> list
+                ? list.stream().map(String::valueOf).toList()
+                : null;
+        Long userVersion = claims.get(JwtUtils.CLAIM_USER_VERSION) instanceof Number number
+                ? number.longValue()
+                : null;
+
+        return new VerifiedToken(claims.getSubject(), roles, userVersion, claims.getExpiration().toInstant());
+    }
+
+    /**
+     * Indicates whether the token carries everything needed to authenticate
+     * without loading the user.
+     *
+     * @return true if both roles and user version are present
+     */
+    public boolean isSelfContained() {
+        return roles != null && userVersion != null;
+    }
+
+    /**
+     * Checks whether the token has expired.
+     *
+     * @param now the current instant
+     * @return true if the token is expired at {@code now}
+     */
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,130 @@
+package com.noosyn.onboarding.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded in-process cache of verified JWT tokens, placed in front of
+ * {@link JwtUtils}.
+ * <p>
+ * Clients reuse the same bearer token for hours, so caching the verification
+ * result skips signature checking and claim decoding on repeat requests.
+ * </p>
+ * <ul>
+ *     <li>Keys are SHA-256 digests of the token, so raw tokens are never
+ *     retained in memory</li>
+ *     <li>Each entry expires at the token's own {@code exp}</li>
+ *     <li>The cache is size-bounded; least valuable entries are evicted first</li>
+ *     <li>Only successfully verified tokens are cached</li>
+ *     <li>Hits and misses are published as {@code cache.gets} meters tagged
+ *     {@code cache=jwt.tokens}</li>
+ * </ul>
+ *
+ * <p>
+ * Configuration properties:
+ * </p>
+ * <ul>
+ *     <li>{@code jwt.cache.enabled} — turns the cache on or off</li>
+ *     <li>{@code jwt.cache.maxSize} — maximum number of cached tokens</li>
+ * </ul>
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private final JwtUtils jwtUtils;
+    private final boolean enabled;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(JwtUtils jwtUtils,
+                              @Value("${jwt.cache.enabled:true}") boolean enabled,
+                              @Value("${jwt.cache.maxSize:10000}") long maxSize) {
+        this.jwtUtils = jwtUtils;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExpireAtTokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the verified view of a token, verifying it only on a cache miss.
+     *
+     * @param token the raw JWT token
+     * @return the verified token, or an empty {@link Optional} if the token is
+     *         invalid or expired
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (!enabled) {
+            return jwtUtils.validateToken(token).map(VerifiedToken::from);
+        }
+
+        String key = digest(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null && !cached.isExpired(Instant.now())) {
+            return Optional.of(cached);
+        }
+
+        Optional<VerifiedToken> verified = jwtUtils.validateToken(token).map(VerifiedToken::from);
+        verified.ifPresent(v -> cache.put(key, v));
+        return verified;
+    }
+
+    /**
+     * Publishes the cache's hits, misses, size and evictions as
+     * {@code cache.*} meters tagged {@code cache=jwt.tokens}.
+     *
+     * @param registry the registry to publish to
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "jwt.tokens");
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * Expires each entry at the {@code exp} of the token it was created from.
+     */
+    private static final class ExpireAtTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
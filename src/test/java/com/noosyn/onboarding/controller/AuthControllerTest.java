@@ -11,6 +11,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -137,6 +138,20 @@ class AuthControllerTest {
 
     }
 
+    @Test
+    void ShouldReturnTooManyRequestsWhenHashingSaturated() throws Exception {
+        LoginRequest req = new LoginRequest("aaryan", "password123");
+
+        when(authService.login(req)).thenThrow(new AppException("ERR-105", HttpStatus.TOO_MANY_REQUESTS));
+
+        mockMvc.perform(
+                post(ApiEndPointConstants.AUTH_BASE + ApiEndPointConstants.LOGIN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.errorCode").value("ERR-105"));
+    }
+
 
 }
 
@@ -1,10 +1,24 @@
 package com.noosyn.onboarding.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.noosyn.onboarding.dto.product_dto.BulkItemResult;
+import com.noosyn.onboarding.dto.product_dto.BulkResponse;
+import com.noosyn.onboarding.dto.product_dto.CacheStatsResponse;
+import com.noosyn.onboarding.dto.product_dto.CatalogFormat;
+import com.noosyn.onboarding.dto.product_dto.CursorPageResponse;
+import com.noosyn.onboarding.dto.product_dto.ImportSummary;
 import com.noosyn.onboarding.dto.product_dto.PaginatedResponse;
+import com.noosyn.onboarding.dto.product_dto.ProductBatchResponse;
+import com.noosyn.onboarding.dto.product_dto.ProductQuery;
 import com.noosyn.onboarding.dto.product_dto.ProductRequest;
 import com.noosyn.onboarding.dto.product_dto.ProductResponse;
+import com.noosyn.onboarding.dto.product_dto.ProductSort;
+import com.noosyn.onboarding.dto.product_dto.TotalMode;
 import com.noosyn.onboarding.exception.AppException;
+import com.noosyn.onboarding.service.ProductAutocompleteService;
+import com.noosyn.onboarding.service.ProductBulkService;
+import com.noosyn.onboarding.service.ProductExportService;
+import com.noosyn.onboarding.service.ProductSearchIndex;
 import com.noosyn.onboarding.service.ProductService;
 import com.noosyn.onboarding.utils.ApiEndPointConstants;
 import com.noosyn.onboarding.utils.JwtAuthenticationFilter;
@@ -19,6 +33,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 
 import java.math.BigDecimal;
@@ -44,6 +61,18 @@ class ProductControllerTest {
         @MockBean
         private ProductService productService;
 
+        @MockBean
+        private ProductBulkService productBulkService;
+
+        @MockBean
+        private ProductExportService productExportService;
+
+        @MockBean
+        private ProductSearchIndex productSearchIndex;
+
+        @MockBean
+        private ProductAutocompleteService productAutocompleteService;
+
         @Autowired
         private ObjectMapper objectMapper;
 
@@ -89,7 +118,7 @@ class ProductControllerTest {
                                 2L,
                                 1);
 
-                when(productService.getAllProducts(0, 10)).thenReturn(response);
+                when(productService.getAllProducts(0, 10, TotalMode.ESTIMATED, ProductQuery.DEFAULT)).thenReturn(response);
 
                 mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE))
                                 .andExpect(status().isOk())
@@ -98,7 +127,147 @@ class ProductControllerTest {
                                 .andExpect(jsonPath("$.totalItems").value(2))
                                 .andExpect(jsonPath("$.totalPages").value(1));
 
-                verify(productService).getAllProducts(0, 10);
+                verify(productService).getAllProducts(0, 10, TotalMode.ESTIMATED, ProductQuery.DEFAULT);
+        }
+
+        @Test
+        void ShouldGetAllProductsWithExactTotalWhenRequested() throws Exception {
+                PaginatedResponse<ProductResponse> response = new PaginatedResponse<>(
+                                List.of(new ProductResponse(1L, "Laptop", new BigDecimal("50000.0"))),
+                                0,
+                                1L,
+                                1);
+
+                when(productService.getAllProducts(0, 10, TotalMode.EXACT, ProductQuery.DEFAULT)).thenReturn(response);
+
+                mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE).param("total", "exact"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.totalItems").value(1))
+                                .andExpect(jsonPath("$.hasNext").value(false));
+
+                verify(productService).getAllProducts(0, 10, TotalMode.EXACT, ProductQuery.DEFAULT);
+        }
+
+        @Test
+        void ShouldFailGetAllProductsWhenTotalModeInvalid() throws Exception {
+                mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE).param("total", "sometimes"))
+                                .andExpect(status().isBadRequest());
+
+                verify(productService, never()).getAllProducts(anyInt(), anyInt(), any(TotalMode.class), any(ProductQuery.class));
+        }
+
+        @Test
+        void ShouldFilterAndSortProducts() throws Exception {
+                ProductQuery query = new ProductQuery(new BigDecimal("100"), new BigDecimal("500"), ProductSort.PRICE, true);
+                PaginatedResponse<ProductResponse> response = new PaginatedResponse<>(
+                                List.of(new ProductResponse(4L, "Mouse", new BigDecimal("450.0"))), 0, null, null, false);
+
+                when(productService.getAllProducts(0, 10, TotalMode.ESTIMATED, query)).thenReturn(response);
+
+                mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE)
+                                .param("minPrice", "100")
+                                .param("maxPrice", "500")
+                                .param("sort", "price")
+                                .param("direction", "desc"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items[0].id").value(4));
+        }
+
+        @Test
+        void ShouldFailGetAllProductsWhenPriceRangeEmpty() throws Exception {
+                mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE)
+                                .param("minPrice", "500")
+                                .param("maxPrice", "100"))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.errorCode").value("ERR-213"));
+        }
+
+        @Test
+        void ShouldFailGetAllProductsWhenSortInvalid() throws Exception {
+                mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE).param("sort", "color"))
+                                .andExpect(status().isBadRequest());
+
+                verify(productService, never()).getAllProducts(anyInt(), anyInt(), any(TotalMode.class), any(ProductQuery.class));
+        }
+
+        // ---------- GET AFTER CURSOR ----------
+        @Test
+        void ShouldGetProductsAfterCursor() throws Exception {
+                CursorPageResponse<ProductResponse> response = new CursorPageResponse<>(
+                                List.of(new ProductResponse(3L, "Tablet", new BigDecimal("30000.0"))),
+                                "next-cursor");
+
+                when(productService.getProductsAfter("cursor", 1, ProductQuery.DEFAULT)).thenReturn(response);
+
+                mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE)
+                                .param("after", "cursor")
+                                .param("size", "1"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items.size()").value(1))
+                                .andExpect(jsonPath("$.nextCursor").value("next-cursor"));
+
+                verify(productService).getProductsAfter("cursor", 1, ProductQuery.DEFAULT);
+                verify(productService, never()).getAllProducts(anyInt(), anyInt(), any(TotalMode.class), any(ProductQuery.class));
+        }
+
+        // ---------- GET BATCH ----------
+        @Test
+        void ShouldGetProductsByIds() throws Exception {
+                ProductBatchResponse response = new ProductBatchResponse(
+                                List.of(new ProductResponse(2L, "Phone", new BigDecimal("20000.0")),
+                                                new ProductResponse(1L, "Laptop", new BigDecimal("50000.0"))),
+                                List.of(9L));
+
+                when(productService.getBatch(List.of(2L, 1L, 9L))).thenReturn(response);
+
+                mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE).param("ids", "2,1,9"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items[0].id").value(2))
+                                .andExpect(jsonPath("$.items[1].id").value(1))
+                                .andExpect(jsonPath("$.missingIds[0]").value(9));
+
+                verify(productService).getBatch(List.of(2L, 1L, 9L));
+        }
+
+        @Test
+        void ShouldRejectIdsCombinedWithCursor() throws Exception {
+                mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE)
+                                .param("ids", "1,2")
+                                .param("after", ""))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.errorCode").value("ERR-215"));
+
+                verifyNoInteractions(productService);
+        }
+
+        @Test
+        void ShouldTagListingWithCatalogETag() throws Exception {
+                PaginatedResponse<ProductResponse> response = new PaginatedResponse<>(List.of(), 0, 0L, 0);
+
+                when(productService.catalogETag()).thenReturn("\"7\"");
+                when(productService.getAllProducts(0, 10, TotalMode.ESTIMATED, ProductQuery.DEFAULT)).thenReturn(response);
+
+                mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string(HttpHeaders.ETAG, "\"7\""));
+        }
+
+        @Test
+        void ShouldReturnNotModifiedForListingWithoutReadingProducts() throws Exception {
+                when(productService.catalogETag()).thenReturn("\"7\"");
+
+                mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE)
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                                .andExpect(status().isNotModified())
+                                .andExpect(content().string(""));
+
+                mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE)
+                                .param("after", "")
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                                .andExpect(status().isNotModified());
+
+                verify(productService, never()).getAllProducts(anyInt(), anyInt(), any(TotalMode.class), any(ProductQuery.class));
+                verify(productService, never()).getProductsAfter(anyString(), anyInt(), any(ProductQuery.class));
         }
 
         // ---------- GET ONE ----------
@@ -125,13 +294,39 @@ class ProductControllerTest {
                 verify(productService).get(99L);
         }
 
+        @Test
+        void ShouldTagProductWithItsVersion() throws Exception {
+                when(productService.get(1L)).thenReturn(new ProductResponse(1L, "Laptop", new BigDecimal("50000.0"), 3L));
+
+                mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE + "/1"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string(HttpHeaders.ETAG, "\"1.3\""))
+                                .andExpect(jsonPath("$.version").value(3));
+        }
+
+        @Test
+        void ShouldReturnNotModifiedWhenProductETagMatches() throws Exception {
+                when(productService.get(1L)).thenReturn(new ProductResponse(1L, "Laptop", new BigDecimal("50000.0"), 3L));
+
+                mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE + "/1")
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"1.3\""))
+                                .andExpect(status().isNotModified())
+                                .andExpect(header().string(HttpHeaders.ETAG, "\"1.3\""))
+                                .andExpect(content().string(""));
+
+                mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE + "/1")
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"1.2\""))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.name").value("Laptop"));
+        }
+
         // ---------- UPDATE ----------
         @Test
         void ShouldUpdateProduct() throws Exception {
                 ProductRequest req = new ProductRequest("Laptop Pro", new BigDecimal("75000.0"));
                 ProductResponse resp = new ProductResponse(1L, "Laptop Pro", new BigDecimal("75000.0"));
 
-                when(productService.update(1L, req)).thenReturn(resp);
+                when(productService.update(1L, req, null)).thenReturn(resp);
 
                 mockMvc.perform(put(ApiEndPointConstants.PRODUCT_BASE + "/1")
                                 .contentType(MediaType.APPLICATION_JSON)
@@ -145,7 +340,7 @@ class ProductControllerTest {
         @Test
         void ShouldFailUpdateProductWhenProductNotFound() throws Exception {
                 ProductRequest req = new ProductRequest("Laptop Pro", new BigDecimal("75000.0"));
-                when(productService.update(99L, req)).thenThrow(new AppException("ERR-201"));
+                when(productService.update(99L, req, null)).thenThrow(new AppException("ERR-201"));
                 mockMvc.perform(put(ApiEndPointConstants.PRODUCT_BASE + "/99")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(req)))
@@ -162,27 +357,199 @@ class ProductControllerTest {
                                 .content(objectMapper.writeValueAsString(req)))
                                 .andExpect(status().isBadRequest());
 
-                verify(productService, never()).update(anyLong(), any(ProductRequest.class));
+                verify(productService, never()).update(anyLong(), any(ProductRequest.class), any());
+        }
+
+        @Test
+        void ShouldUpdateProductIfMatchingVersion() throws Exception {
+                ProductRequest req = new ProductRequest("Laptop Pro", new BigDecimal("75000.0"));
+                ProductResponse resp = new ProductResponse(1L, "Laptop Pro", new BigDecimal("75000.0"), 4L);
+
+                when(productService.update(1L, req, 3L)).thenReturn(resp);
+
+                mockMvc.perform(put(ApiEndPointConstants.PRODUCT_BASE + "/1")
+                                .header(HttpHeaders.IF_MATCH, "\"1.3\"")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(req)))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string(HttpHeaders.ETAG, "\"1.4\""));
+
+                verify(productService).update(1L, req, 3L);
+        }
+
+        @Test
+        void ShouldFailUpdateProductWhenVersionChanged() throws Exception {
+                ProductRequest req = new ProductRequest("Laptop Pro", new BigDecimal("75000.0"));
+
+                when(productService.update(1L, req, 3L))
+                                .thenThrow(new AppException("ERR-214", HttpStatus.PRECONDITION_FAILED));
+
+                mockMvc.perform(put(ApiEndPointConstants.PRODUCT_BASE + "/1")
+                                .header(HttpHeaders.IF_MATCH, "\"1.3\"")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(req)))
+                                .andExpect(status().isPreconditionFailed())
+                                .andExpect(jsonPath("$.errorCode").value("ERR-214"));
+        }
+
+        @Test
+        void ShouldFailUpdateProductWhenIfMatchIsForAnotherProduct() throws Exception {
+                ProductRequest req = new ProductRequest("Laptop Pro", new BigDecimal("75000.0"));
+
+                mockMvc.perform(put(ApiEndPointConstants.PRODUCT_BASE + "/1")
+                                .header(HttpHeaders.IF_MATCH, "W/\"2.3\"")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(req)))
+                                .andExpect(status().isPreconditionFailed());
+
+                verify(productService, never()).update(anyLong(), any(ProductRequest.class), any());
         }
 
         // ---------- DELETE ----------
         @Test
         void ShouldDeleteProduct() throws Exception {
-                doNothing().when(productService).delete(1L);
+                doNothing().when(productService).delete(1L, null);
 
                 mockMvc.perform(delete(ApiEndPointConstants.PRODUCT_BASE + "/1"))
                                 .andExpect(status().isNoContent());
 
-                verify(productService).delete(1L);
+                verify(productService).delete(1L, null);
         }
 
         @Test
         void ShouldFailDeleteProductWhenProductNotFound() throws Exception {
-                doThrow(new AppException("ERR-201")).when(productService).delete(99L);
+                doThrow(new AppException("ERR-201")).when(productService).delete(99L, null);
 
                 mockMvc.perform(delete(ApiEndPointConstants.PRODUCT_BASE + "/99"))
                                 .andExpect(status().isBadRequest());
 
-                verify(productService).delete(99L);
+                verify(productService).delete(99L, null);
+        }
+
+        @Test
+        void ShouldFailDeleteProductWhenVersionChanged() throws Exception {
+                doThrow(new AppException("ERR-214", HttpStatus.PRECONDITION_FAILED)).when(productService).delete(1L, 3L);
+
+                mockMvc.perform(delete(ApiEndPointConstants.PRODUCT_BASE + "/1")
+                                .header(HttpHeaders.IF_MATCH, "\"1.3\""))
+                                .andExpect(status().isPreconditionFailed());
+
+                verify(productService).delete(1L, 3L);
+        }
+
+        // ---------- BULK ----------
+        @Test
+        void ShouldCreateProductsInBulk() throws Exception {
+                List<ProductRequest> reqs = List.of(
+                                new ProductRequest("Laptop", new BigDecimal("50000.0")),
+                                new ProductRequest("", new BigDecimal("-1")));
+                BulkResponse resp = new BulkResponse(1, 1, List.of(
+                                BulkItemResult.success(0, 1L, BulkItemResult.Status.CREATED),
+                                BulkItemResult.failure(1, null, "ERR-200")));
+
+                when(productBulkService.createAll(reqs)).thenReturn(resp);
+
+                mockMvc.perform(post(ApiEndPointConstants.PRODUCT_BASE + ApiEndPointConstants.BULK)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(reqs)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.succeeded").value(1))
+                                .andExpect(jsonPath("$.results[1].errorCode").value("ERR-200"));
+
+                verify(productBulkService).createAll(reqs);
+        }
+
+        @Test
+        void ShouldDeleteProductsInBulk() throws Exception {
+                BulkResponse resp = new BulkResponse(2, 0, List.of(
+                                BulkItemResult.success(0, 1L, BulkItemResult.Status.DELETED),
+                                BulkItemResult.success(1, 2L, BulkItemResult.Status.DELETED)));
+
+                when(productBulkService.deleteAll(List.of(1L, 2L))).thenReturn(resp);
+
+                mockMvc.perform(delete(ApiEndPointConstants.PRODUCT_BASE + ApiEndPointConstants.BULK)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[1,2]"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.succeeded").value(2));
+
+                verify(productBulkService).deleteAll(List.of(1L, 2L));
+                verify(productService, never()).delete(anyLong(), any());
+        }
+
+        // ---------- CACHE STATS ----------
+        @Test
+        void ShouldReportCacheStats() throws Exception {
+                when(productService.cacheStats()).thenReturn(List.of(
+                                new CacheStatsResponse("products", 10, 90, 10, 0.9, 0)));
+
+                mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE + ApiEndPointConstants.CACHE_STATS))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].name").value("products"))
+                                .andExpect(jsonPath("$[0].hitRate").value(0.9));
+        }
+
+        // ---------- SEARCH ----------
+        @Test
+        void ShouldSearchProductsByName() throws Exception {
+                PaginatedResponse<ProductResponse> resp = new PaginatedResponse<>(
+                                List.of(new ProductResponse(2L, "Laptop", BigDecimal.TEN)), 0, 1L, 1);
+                when(productSearchIndex.search("lap", 0, 5)).thenReturn(resp);
+
+                mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE + ApiEndPointConstants.SEARCH)
+                                .param("q", "lap")
+                                .param("size", "5"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items[0].id").value(2))
+                                .andExpect(jsonPath("$.totalItems").value(1));
+        }
+
+        @Test
+        void ShouldAutocompleteProductNames() throws Exception {
+                when(productAutocompleteService.complete("lap", 10)).thenReturn(List.of("Laptop", "Laptop Sleeve"));
+
+                mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE + ApiEndPointConstants.AUTOCOMPLETE)
+                                .param("prefix", "lap"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[1]").value("Laptop Sleeve"));
+        }
+
+        // ---------- EXPORT ----------
+        @Test
+        void ShouldStreamCsvExport() throws Exception {
+                MvcResult result = mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE + ApiEndPointConstants.EXPORT)
+                                .param("format", "csv"))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mockMvc.perform(asyncDispatch(result))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Content-Type", "text/csv"));
+
+                verify(productExportService).export(eq(CatalogFormat.CSV), any());
+        }
+
+        @Test
+        void ShouldFailExportWhenFormatInvalid() throws Exception {
+                mockMvc.perform(get(ApiEndPointConstants.PRODUCT_BASE + ApiEndPointConstants.EXPORT)
+                                .param("format", "xml"))
+                                .andExpect(status().isBadRequest());
+
+                verify(productExportService, never()).export(any(), any());
+        }
+
+        // ---------- IMPORT ----------
+        @Test
+        void ShouldImportCsvBody() throws Exception {
+                when(productBulkService.importProducts(eq(CatalogFormat.CSV), any()))
+                                .thenReturn(new ImportSummary(1, 1, 0, List.of(), false));
+
+                mockMvc.perform(post(ApiEndPointConstants.PRODUCT_BASE + ApiEndPointConstants.IMPORT)
+                                .param("format", "csv")
+                                .contentType("text/csv")
+                                .content("name,price\nLaptop,50000\n"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.imported").value(1))
+                                .andExpect(jsonPath("$.errorsTruncated").value(false));
         }
 }
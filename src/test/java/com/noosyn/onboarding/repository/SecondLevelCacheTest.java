@@ -0,0 +1,104 @@
+package com.noosyn.onboarding.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.noosyn.onboarding.entity.Role;
+import com.noosyn.onboarding.entity.User;
+import com.noosyn.onboarding.service.CustomUserDetailsService;
+import com.noosyn.onboarding.service.UserDetailsCache;
+import com.noosyn.onboarding.utils.UserChangeListener;
+import com.noosyn.onboarding.utils.UserVersionRegistry;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that repeated user lookups are served by the Hibernate second-level
+ * and query caches configured in {@code application.yml} and
+ * {@code ehcache.xml}.
+ * <p>
+ * Lookups go through {@link CustomUserDetailsService#loadUserIfCurrent},
+ * the path stale stateless tokens take, which bypasses
+ * {@link UserDetailsCache}. Runs against an in-memory H2 database. Every
+ * repository call runs in its own committed transaction, as in the
+ * application, because cache entries are only published on commit.
+ * </p>
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:second-level-cache;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ UserChangeListener.class, UserVersionRegistry.class, UserDetailsCache.class,
+        CustomUserDetailsService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepo.deleteAll();
+        emf.getCache().evictAll();
+    }
+
+    @Test
+    void ShouldServeRepeatedUserLookupsFromQueryAndEntityCaches() {
+        long version = userRepo.save(User.builder().username("aaryan").password("hash").role(Role.USER).build())
+                .getVersion();
+        emf.getCache().evictAll();
+        stats.clear();
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(userDetailsService.loadUserIfCurrent("aaryan", version).isPresent());
+        }
+
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(2, stats.getQueryCacheHitCount());
+        assertEquals(2, stats.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void ShouldRereadUserAfterUpdate() {
+        userRepo.save(User.builder().username("aaryan").password("hash").role(Role.USER).build());
+        User user = userRepo.findByUsername("aaryan").orElseThrow();
+
+        user.setRole(Role.ADMIN);
+        userRepo.save(user);
+
+        assertTrue(userDetailsService.loadUserIfCurrent("aaryan", user.getVersion() + 1)
+                .orElseThrow()
+                .getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+    }
+}
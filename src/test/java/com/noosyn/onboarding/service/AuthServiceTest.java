@@ -11,7 +11,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.noosyn.onboarding.dto.auth_dto.AuthResponse;
 import com.noosyn.onboarding.dto.auth_dto.LoginRequest;
@@ -28,7 +27,7 @@ class AuthServiceTest {
     private UserRepository repo;
 
     @Mock
-    private PasswordEncoder encoder;
+    private PasswordHasher hasher;
 
     @Mock
     private JwtUtils jwt;
@@ -53,9 +52,9 @@ class AuthServiceTest {
                 .build();
 
         when(repo.findByUsername("aaryan")).thenReturn(Optional.empty());
-        when(encoder.encode("pass123")).thenReturn("encodedPass");
+        when(hasher.encode("pass123")).thenReturn("encodedPass");
         when(repo.save(any(User.class))).thenReturn(user);
-        when(jwt.generateToken(any())).thenReturn("jwt-token");
+        when(jwt.generateToken(any(), anyLong())).thenReturn("jwt-token");
 
         AuthResponse response = authService.register(req);
 
@@ -84,8 +83,8 @@ class AuthServiceTest {
                 .build();
 
         when(repo.findByUsername("aaryan")).thenReturn(Optional.of(user));
-        when(encoder.matches("pass123", "encodedPass")).thenReturn(true);
-        when(jwt.generateToken(any())).thenReturn("jwt-token");
+        when(hasher.matches("pass123", "encodedPass")).thenReturn(true);
+        when(jwt.generateToken(any(), anyLong())).thenReturn("jwt-token");
 
         AuthResponse response = authService.login(req);
 
@@ -111,7 +110,7 @@ class AuthServiceTest {
                 .build();
 
         when(repo.findByUsername("aaryan")).thenReturn(Optional.of(user));
-        when(encoder.matches("wrongPass", "encodedPass")).thenReturn(false);
+        when(hasher.matches("wrongPass", "encodedPass")).thenReturn(false);
 
         assertThrows(AppException.class, () -> authService.login(req));
     }
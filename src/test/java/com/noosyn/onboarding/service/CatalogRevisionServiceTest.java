@@ -0,0 +1,99 @@
+package com.noosyn.onboarding.service;
+
+import com.noosyn.onboarding.entity.CatalogRevision;
+import com.noosyn.onboarding.repository.CatalogRevisionRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CatalogRevisionServiceTest {
+
+    @Mock
+    private CatalogRevisionRepository repo;
+
+    private CatalogRevisionService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new CatalogRevisionService(repo, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(service);
+    }
+
+    @Test
+    void ShouldReadPersistedRevisionOnceUntilNextCommit() {
+        when(repo.findRevision()).thenReturn(Optional.of(42L), Optional.of(43L));
+
+        assertEquals(42L, service.current());
+        assertEquals(42L, service.current());
+        verify(repo, times(1)).findRevision();
+
+        service.onProductChangeCommitted(ProductChangedEvent.deleted(1L));
+
+        assertEquals(43L, service.current());
+        verify(repo, times(2)).findRevision();
+    }
+
+    @Test
+    void ShouldRereadRevisionAfterRefreshInterval() {
+        service = new CatalogRevisionService(repo, Duration.ZERO);
+        when(repo.findRevision()).thenReturn(Optional.of(7L), Optional.of(9L));
+
+        assertEquals(7L, service.current());
+        assertEquals(9L, service.current());
+    }
+
+    @Test
+    void ShouldIncrementOncePerTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.onProductChanged(ProductChangedEvent.deleted(1L));
+        service.onProductChanged(ProductChangedEvent.deleted(2L));
+        service.onProductChanged(ProductChangedEvent.deleted(3L));
+        verify(repo, times(1)).increment();
+
+        // Completing the transaction lets the next one increment again
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        service.onProductChanged(ProductChangedEvent.deleted(4L));
+        verify(repo, times(2)).increment();
+    }
+
+    @Test
+    void ShouldIncrementImmediatelyOutsideTransaction() {
+        service.onProductChanged(ProductChangedEvent.deleted(1L));
+        service.onProductChanged(ProductChangedEvent.deleted(2L));
+        verify(repo, times(2)).increment();
+    }
+
+    @Test
+    void ShouldCreateCounterRowOnlyWhenMissing() {
+        when(repo.existsById(CatalogRevision.ID)).thenReturn(true);
+        service.afterPropertiesSet();
+        verify(repo, never()).save(any());
+
+        when(repo.existsById(CatalogRevision.ID)).thenReturn(false);
+        when(repo.save(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        assertDoesNotThrow(service::afterPropertiesSet);
+    }
+}
@@ -4,6 +4,8 @@ import com.noosyn.onboarding.entity.Role;
 import com.noosyn.onboarding.entity.User;
 import com.noosyn.onboarding.exception.AppException;
 import com.noosyn.onboarding.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -11,6 +13,7 @@ import org.mockito.*;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,6 +24,9 @@ class CustomUserDetailsServiceTest {
         @Mock
         private UserRepository repo;
 
+        @Spy
+        private UserDetailsCache cache = new UserDetailsCache(true, 100, Duration.ofMinutes(5));
+
         @InjectMocks
         private CustomUserDetailsService service;
 
@@ -52,6 +58,49 @@ class CustomUserDetailsServiceTest {
                 verify(repo).findByUsername("aaryan");
         }
 
+        // ---------------- CACHE ----------------
+        @Test
+        void ShouldServeRepeatedLookupsFromCache() {
+                User mockUser = User.builder()
+                                .username("aaryan")
+                                .password("encoded-pass")
+                                .role(Role.USER)
+                                .build();
+
+                when(repo.findByUsername("aaryan"))
+                                .thenReturn(Optional.of(mockUser));
+
+                service.loadUserByUsername("aaryan");
+                service.loadUserByUsername("aaryan");
+
+                verify(repo, times(1)).findByUsername("aaryan");
+
+                MeterRegistry registry = new SimpleMeterRegistry();
+                cache.bindTo(registry);
+                assertEquals(1.0, registry.get("cache.gets").tags("cache", "users", "result", "hit")
+                                .functionCounter().count());
+                assertEquals(1.0, registry.get("cache.gets").tags("cache", "users", "result", "miss")
+                                .functionCounter().count());
+        }
+
+        @Test
+        void ShouldReloadUserAfterEviction() {
+                User mockUser = User.builder()
+                                .username("aaryan")
+                                .password("encoded-pass")
+                                .role(Role.USER)
+                                .build();
+
+                when(repo.findByUsername("aaryan"))
+                                .thenReturn(Optional.of(mockUser));
+
+                service.loadUserByUsername("aaryan");
+                cache.evict("aaryan");
+                service.loadUserByUsername("aaryan");
+
+                verify(repo, times(2)).findByUsername("aaryan");
+        }
+
         // ---------------- NOT FOUND CASE ----------------
         @Test
         void ShouldLoadUserByUsernameNotFound() {
@@ -64,4 +113,39 @@ class CustomUserDetailsServiceTest {
 
                 verify(repo).findByUsername("unknown");
         }
+
+        // ---------------- VERSION CHECK ----------------
+        @Test
+        void ShouldLoadUserIfCurrentWhenVersionMatches() {
+                User mockUser = User.builder()
+                                .username("aaryan")
+                                .password("encoded-pass")
+                                .role(Role.ADMIN)
+                                .version(3L)
+                                .build();
+
+                when(repo.findByUsername("aaryan"))
+                                .thenReturn(Optional.of(mockUser));
+
+                Optional<UserDetails> details = service.loadUserIfCurrent("aaryan", 3L);
+
+                assertTrue(details.isPresent());
+                assertTrue(details.get().getAuthorities().stream()
+                                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+        }
+
+        @Test
+        void ShouldNotLoadUserIfCurrentWhenVersionChanged() {
+                User mockUser = User.builder()
+                                .username("aaryan")
+                                .password("encoded-pass")
+                                .role(Role.USER)
+                                .version(4L)
+                                .build();
+
+                when(repo.findByUsername("aaryan"))
+                                .thenReturn(Optional.of(mockUser));
+
+                assertTrue(service.loadUserIfCurrent("aaryan", 3L).isEmpty());
+        }
 }
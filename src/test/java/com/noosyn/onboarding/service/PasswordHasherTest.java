@@ -0,0 +1,200 @@
+package com.noosyn.onboarding.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.noosyn.onboarding.dto.auth_dto.PasswordHashingStats;
+import com.noosyn.onboarding.exception.AppException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHasherTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hasher.shutdown();
+    }
+
+    @Test
+    void ShouldEncodeAndMatchOnHashingPool() {
+        hasher = new PasswordHasher(new BCryptPasswordEncoder(4), 2, 10, Duration.ofSeconds(5), registry);
+
+        String hash = hasher.encode("pass123");
+
+        assertTrue(hasher.matches("pass123", hash));
+        assertFalse(hasher.matches("wrong", hash));
+        PasswordHashingStats stats = hasher.stats();
+        assertEquals(2, stats.threads());
+        assertEquals(0, stats.timedOut());
+        assertEquals(0, stats.rejected());
+        assertEquals(3, registry.get("auth.hashing.wait").timer().count());
+    }
+
+    @Test
+    void ShouldRejectWithTooManyRequestsWhenQueueFull() throws Exception {
+        hasher = new PasswordHasher(blockingEncoder(), 1, 1, Duration.ofSeconds(5), registry);
+
+        CompletableFuture.runAsync(() -> hasher.encode("running"));
+        CompletableFuture.runAsync(() -> hasher.encode("queued"));
+        waitForQueueDepth(1);
+
+        AppException ex = assertThrows(AppException.class, () -> hasher.encode("rejected"));
+        assertEquals("ERR-105", ex.getErrorCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, ex.getStatus());
+        assertEquals(1, hasher.stats().rejected());
+    }
+
+    @Test
+    void ShouldFailWithServiceUnavailableOnTimeout() {
+        hasher = new PasswordHasher(blockingEncoder(), 1, 10, Duration.ofMillis(100), registry);
+
+        AppException ex = assertThrows(AppException.class, () -> hasher.encode("slow"));
+
+        assertEquals("ERR-106", ex.getErrorCode());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
+        assertEquals(1, hasher.stats().timedOut());
+        assertEquals(1, hasher.stats().abandoned());
+    }
+
+    @Test
+    void ShouldNotCountQueuedCallsAsAbandoned() throws Exception {
+        hasher = new PasswordHasher(uninterruptibleEncoder(), 1, 10, Duration.ofMillis(300), registry);
+
+        CompletableFuture<Void> running = CompletableFuture.runAsync(() -> hasher.encode("running"));
+        waitForActiveThreads(1);
+        assertThrows(AppException.class, () -> hasher.encode("queued"));
+        assertThrows(CompletionException.class, running::join);
+
+        assertEquals(2, hasher.stats().timedOut());
+        assertEquals(1, hasher.stats().abandoned());
+        assertEquals(0, hasher.stats().queueDepth());
+    }
+
+    @Test
+    void ShouldRejectCallsThatCannotFinishInTime() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        PasswordEncoder blocking = blockingEncoder();
+        hasher = new PasswordHasher(new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                if (calls.incrementAndGet() > 1) {
+                    return blocking.encode(rawPassword);
+                }
+                try {
+                    Thread.sleep(150);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        }, 1, 10, Duration.ofMillis(250), registry);
+
+        hasher.encode("measured");
+        CompletableFuture.runAsync(() -> hasher.encode("running"));
+        waitForActiveThreads(1);
+
+        // One mean hash time to wait for the running call and one for its own
+        // exceed the timeout, so it is refused instead of being queued
+        AppException ex = assertThrows(AppException.class, () -> hasher.encode("refused"));
+        assertEquals("ERR-105", ex.getErrorCode());
+        assertEquals(0, hasher.stats().queueDepth());
+        assertTrue(hasher.stats().averageHashMs() >= 150);
+    }
+
+    @Test
+    void ShouldPublishRejectionsAndTimeoutsAsMeters() {
+        hasher = new PasswordHasher(blockingEncoder(), 1, 10, Duration.ofMillis(100), registry);
+
+        assertThrows(AppException.class, () -> hasher.encode("slow"));
+
+        assertEquals(1.0, registry.get("auth.hashing.timeouts").functionCounter().count());
+        assertEquals(1.0, registry.get("auth.hashing.abandoned").functionCounter().count());
+        assertEquals(0.0, registry.get("auth.hashing.rejected").functionCounter().count());
+        assertEquals(1, registry.get("auth.hashing.wait").timer().count());
+    }
+
+    /** Encoder whose calls block until the test finishes. */
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+
+    /** Encoder that, like BCrypt, ignores interruption and runs until the test finishes. */
+    private PasswordEncoder uninterruptibleEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                boolean interrupted = false;
+                while (true) {
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                        break;
+                    } catch (InterruptedException ex) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+
+    private void waitForActiveThreads(int active) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (hasher.stats().activeThreads() < active && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(active, hasher.stats().activeThreads());
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (hasher.stats().queueDepth() < depth && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(depth, hasher.stats().queueDepth());
+    }
+}
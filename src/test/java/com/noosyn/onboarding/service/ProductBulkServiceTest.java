@@ -0,0 +1,184 @@
+package com.noosyn.onboarding.service;
+
+import com.noosyn.onboarding.dto.product_dto.BulkItemResult;
+import com.noosyn.onboarding.dto.product_dto.BulkResponse;
+import com.noosyn.onboarding.dto.product_dto.CatalogFormat;
+import com.noosyn.onboarding.dto.product_dto.ImportSummary;
+import com.noosyn.onboarding.dto.product_dto.ProductBulkUpdateRequest;
+import com.noosyn.onboarding.dto.product_dto.ProductRequest;
+import com.noosyn.onboarding.entity.Product;
+import com.noosyn.onboarding.exception.AppException;
+import com.noosyn.onboarding.repository.ProductRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.validation.Validation;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProductBulkServiceTest {
+
+    @Mock
+    private ProductRepository repo;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    private ProductBulkService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new ProductBulkService(
+                repo,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                events,
+                Jackson2ObjectMapperBuilder.json().build(),
+                new StaticMessageSource());
+        ReflectionTestUtils.setField(service, "maxBulkSize", 5);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "importBatchSize", 2);
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 1);
+    }
+
+    // ---------- CREATE ----------
+    @Test
+    @SuppressWarnings("unchecked")
+    void ShouldCreateValidItemsInBatchesAndReportInvalidOnes() {
+        long[] nextId = { 1 };
+        when(repo.saveAll(any(Iterable.class))).thenAnswer(inv -> {
+            Iterable<Product> products = inv.getArgument(0);
+            products.forEach(p -> p.setId(nextId[0]++));
+            return products;
+        });
+
+        BulkResponse resp = service.createAll(List.of(
+                new ProductRequest("Laptop", BigDecimal.valueOf(50000)),
+                new ProductRequest("", BigDecimal.valueOf(10)),
+                new ProductRequest("Phone", BigDecimal.valueOf(20000)),
+                new ProductRequest("Tablet", BigDecimal.valueOf(30000))));
+
+        assertEquals(3, resp.succeeded());
+        assertEquals(1, resp.failed());
+        assertEquals(BulkItemResult.Status.CREATED, resp.results().get(0).status());
+        assertEquals("ERR-200", resp.results().get(1).errorCode());
+        assertEquals(3L, resp.results().get(3).id());
+        verify(repo, times(2)).saveAll(any(Iterable.class));
+    }
+
+    @Test
+    void ShouldFailCreateWhenTooManyItems() {
+        List<ProductRequest> reqs = Collections.nCopies(6,
+                new ProductRequest("Laptop", BigDecimal.ONE));
+
+        assertThrows(AppException.class, () -> service.createAll(reqs));
+    }
+
+    // ---------- UPDATE ----------
+    @Test
+    @SuppressWarnings("unchecked")
+    void ShouldUpdateExistingItemsAndReportMissingOnes() {
+        Product existing = Product.builder().id(1L).name("Laptop").price(BigDecimal.valueOf(50000)).build();
+        when(repo.findAllById(any())).thenReturn(List.of(existing));
+
+        BulkResponse resp = service.updateAll(List.of(
+                new ProductBulkUpdateRequest(1L, "Laptop Pro", BigDecimal.valueOf(75000)),
+                new ProductBulkUpdateRequest(9L, "Ghost", BigDecimal.ONE)));
+
+        assertEquals(BulkItemResult.Status.UPDATED, resp.results().get(0).status());
+        assertEquals("ERR-201", resp.results().get(1).errorCode());
+        assertEquals("Laptop Pro", existing.getName());
+        verify(repo).saveAll(any(Collection.class));
+    }
+
+    // ---------- DELETE ----------
+    @Test
+    @SuppressWarnings("unchecked")
+    void ShouldDeleteExistingItemsWithOneStatementPerChunk() {
+        when(repo.findExistingIds(any())).thenReturn(List.of(1L));
+
+        BulkResponse resp = service.deleteAll(List.of(1L, 2L));
+
+        assertEquals(1, resp.succeeded());
+        assertEquals("ERR-201", resp.results().get(1).errorCode());
+        verify(repo).deleteAllByIdInBatch(any(Iterable.class));
+        verify(events).publishEvent(ProductChangedEvent.deleted(1L));
+    }
+
+    // ---------- IMPORT ----------
+    @Test
+    @SuppressWarnings("unchecked")
+    void ShouldImportNdjsonInBatchesAndReportBadLines() throws IOException {
+        when(repo.saveAll(any(Iterable.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        ImportSummary summary = service.importProducts(CatalogFormat.NDJSON, body("""
+                {"name":"Laptop","price":50000}
+                {"name":"Phone","price":20000}
+
+                {"id":7,"name":"Tablet","price":30000}
+                {"name":"Broken"
+                {"name":"","price":10}
+                """));
+
+        assertEquals(5, summary.processed());
+        assertEquals(3, summary.imported());
+        assertEquals(2, summary.failed());
+        assertEquals(1, summary.errors().size());
+        assertEquals(5, summary.errors().get(0).line());
+        assertEquals("ERR-209", summary.errors().get(0).errorCode());
+        assertTrue(summary.errorsTruncated());
+        verify(repo, times(2)).saveAll(any(Iterable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ShouldImportCsvUsingHeaderColumnOrder() throws IOException {
+        when(repo.saveAll(any(Iterable.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        ImportSummary summary = service.importProducts(CatalogFormat.CSV, body("""
+                price,id,name
+                50000,1,"Laptop, 15"
+                20000,2,Phone
+                abc,3,Tablet
+                """));
+
+        assertEquals(3, summary.processed());
+        assertEquals(2, summary.imported());
+        assertEquals(4, summary.errors().get(0).line());
+        assertEquals("ERR-209", summary.errors().get(0).errorCode());
+        verify(events, times(2)).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void ShouldRejectCsvWithoutRequiredColumns() {
+        AppException ex = assertThrows(AppException.class,
+                () -> service.importProducts(CatalogFormat.CSV, body("id,title\n1,Laptop\n")));
+
+        assertEquals("ERR-210", ex.getErrorCode());
+        verify(repo, never()).saveAll(any());
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
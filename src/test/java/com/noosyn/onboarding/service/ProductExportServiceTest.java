@@ -0,0 +1,63 @@
+package com.noosyn.onboarding.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.noosyn.onboarding.dto.product_dto.CatalogFormat;
+import com.noosyn.onboarding.dto.product_dto.ProductResponse;
+import com.noosyn.onboarding.repository.ProductRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductExportServiceTest {
+
+    @Mock
+    private ProductRepository repo;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ProductExportService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(repo.streamResponses()).thenAnswer(inv -> Stream.of(
+                new ProductResponse(1L, "Laptop", new BigDecimal("50000.00"), 0L),
+                new ProductResponse(2L, "Phone, \"Pro\"", new BigDecimal("20000.50"), 3L)));
+    }
+
+    @Test
+    void ShouldExportNdjsonOneProductPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.export(CatalogFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Laptop", objectMapper.readTree(lines[0]).get("name").asText());
+        assertEquals(2, objectMapper.readTree(lines[1]).get("id").asInt());
+        assertEquals(3, objectMapper.readTree(lines[1]).get("version").asInt());
+    }
+
+    @Test
+    void ShouldExportCsvWithHeaderAndEscapedNames() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.export(CatalogFormat.CSV, out);
+
+        assertEquals("id,name,price\n"
+                + "1,Laptop,50000.00\n"
+                + "2,\"Phone, \"\"Pro\"\"\",20000.50\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,110 @@
+package com.noosyn.onboarding.service;
+
+import com.noosyn.onboarding.dto.product_dto.PaginatedResponse;
+import com.noosyn.onboarding.dto.product_dto.ProductResponse;
+import com.noosyn.onboarding.exception.AppException;
+import com.noosyn.onboarding.repository.ProductRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository repo;
+
+    @InjectMocks
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(repo.streamResponses()).thenAnswer(inv -> Stream.of(
+                response(1L, "Gaming Laptop Pro"),
+                response(2L, "Laptop"),
+                response(3L, "Laptop Sleeve"),
+                response(4L, "Phone Case")));
+        index.load();
+    }
+
+    @Test
+    void ShouldRankExactThenPrefixThenInfixMatches() {
+        index.onProductChanged(ProductChangedEvent.created(response(5L, "Notebook Laptops")));
+        index.onProductChanged(ProductChangedEvent.created(response(6L, "Ultralaptop")));
+
+        PaginatedResponse<ProductResponse> resp = index.search("LAPTOP", 0, 10);
+
+        assertEquals(List.of(2L, 3L, 1L, 5L, 6L), ids(resp));
+        assertEquals(5L, resp.totalItems());
+    }
+
+    @Test
+    void ShouldRequireEveryTerm() {
+        PaginatedResponse<ProductResponse> resp = index.search("laptop sle", 0, 10);
+
+        assertEquals(List.of(3L), ids(resp));
+    }
+
+    @Test
+    void ShouldPaginateResults() {
+        PaginatedResponse<ProductResponse> resp = index.search("laptop", 1, 2);
+
+        assertEquals(List.of(1L), ids(resp));
+        assertEquals(2, resp.totalPages());
+        assertFalse(resp.hasNext());
+    }
+
+    @Test
+    void ShouldRankOnlyUpToRequestedPageButCountAllHits() {
+        for (long id = 10; id < 40; id++) {
+            index.onProductChanged(ProductChangedEvent.created(response(id, "Laptop " + id)));
+        }
+
+        PaginatedResponse<ProductResponse> resp = index.search("laptop", 0, 3);
+
+        assertEquals(List.of(2L, 10L, 11L), ids(resp));
+        assertEquals(33L, resp.totalItems());
+        assertEquals(11, resp.totalPages());
+    }
+
+    @Test
+    void ShouldReturnEmptyPageBeyondLastHit() {
+        PaginatedResponse<ProductResponse> resp = index.search("laptop", 5, 10);
+
+        assertTrue(resp.items().isEmpty());
+        assertEquals(3L, resp.totalItems());
+    }
+
+    @Test
+    void ShouldApplyUpdatesAndDeletes() {
+        index.onProductChanged(ProductChangedEvent.updated(response(4L, "Laptop Stand")));
+        index.onProductChanged(ProductChangedEvent.deleted(2L));
+
+        assertEquals(List.of(4L, 3L, 1L), ids(index.search("laptop", 0, 10)));
+        assertTrue(index.search("phone", 0, 10).items().isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void ShouldRejectBlankQuery() {
+        AppException ex = assertThrows(AppException.class, () -> index.search(" - ", 0, 10));
+
+        assertEquals("ERR-211", ex.getErrorCode());
+    }
+
+    private static List<Long> ids(PaginatedResponse<ProductResponse> resp) {
+        return resp.items().stream().map(ProductResponse::id).toList();
+    }
+
+    private static ProductResponse response(Long id, String name) {
+        return new ProductResponse(id, name, BigDecimal.TEN);
+    }
+}
@@ -1,22 +1,42 @@
 package com.noosyn.onboarding.service;
 
+import com.noosyn.onboarding.dto.product_dto.CursorPageResponse;
 import com.noosyn.onboarding.dto.product_dto.PaginatedResponse;
+import com.noosyn.onboarding.dto.product_dto.ProductBatchResponse;
+import com.noosyn.onboarding.dto.product_dto.ProductQuery;
 import com.noosyn.onboarding.dto.product_dto.ProductRequest;
 import com.noosyn.onboarding.dto.product_dto.ProductResponse;
+import com.noosyn.onboarding.dto.product_dto.ProductSort;
+import com.noosyn.onboarding.dto.product_dto.TotalMode;
 import com.noosyn.onboarding.entity.Product;
 import com.noosyn.onboarding.exception.AppException;
 import com.noosyn.onboarding.repository.ProductRepository;
+import com.noosyn.onboarding.utils.CursorCodec;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.boot.autoconfigure.data.web.SpringDataWebProperties.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -27,12 +47,25 @@ class ProductServiceTest {
     @Mock
     private ProductRepository repo;
 
+    @Mock
+    private ProductCountEstimator countEstimator;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Mock
+    private CatalogRevisionService revisions;
+
+    @Spy
+    private ProductCache cache = new ProductCache(true, 100, Duration.ofMinutes(10), 100, Duration.ofSeconds(30));
+
     @InjectMocks
     private ProductService service;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(service, "maxBatchSize", 3);
     }
 
     // ---------- CREATE ----------
@@ -59,13 +92,13 @@ class ProductServiceTest {
     // ---------- GET ALL ----------
     @Test
     void ShouldGetAllProducts() {
-        List<Product> products = List.of(
-                Product.builder().id(1L).name("Laptop").price(BigDecimal.valueOf(50000)).build(),
-                Product.builder().id(2L).name("Phone").price(BigDecimal.valueOf(20000)).build());
+        List<ProductResponse> products = List.of(
+                new ProductResponse(1L, "Laptop", BigDecimal.valueOf(50000)),
+                new ProductResponse(2L, "Phone", BigDecimal.valueOf(20000)));
 
-        Page<Product> page = new PageImpl<>(products);
+        Page<ProductResponse> page = new PageImpl<>(products);
 
-        when(repo.findAll(any(org.springframework.data.domain.Pageable.class))).thenReturn(page);
+        when(repo.findResponsePage(any(org.springframework.data.domain.Pageable.class))).thenReturn(page);
 
         PaginatedResponse<ProductResponse> resp = service.getAllProducts(0, 10);
 
@@ -73,70 +106,406 @@ class ProductServiceTest {
         assertEquals("Laptop", resp.items().get(0).name());
         assertEquals("Phone", resp.items().get(1).name());
 
-        verify(repo).findAll(any(org.springframework.data.domain.Pageable.class));
+        verify(repo).findResponsePage(any(org.springframework.data.domain.Pageable.class));
+    }
+
+    @Test
+    void ShouldGetProductsWithoutCountWhenTotalModeNone() {
+        List<ProductResponse> products = List.of(
+                new ProductResponse(1L, "Laptop", BigDecimal.valueOf(50000)));
+
+        when(repo.findResponseSlice(any(org.springframework.data.domain.Pageable.class)))
+                .thenReturn(new SliceImpl<>(products, PageRequest.of(0, 1), true));
+
+        PaginatedResponse<ProductResponse> resp = service.getAllProducts(0, 1, TotalMode.NONE);
+
+        assertEquals(1, resp.items().size());
+        assertNull(resp.totalItems());
+        assertTrue(resp.hasNext());
+        verify(repo, never()).findResponsePage(any(org.springframework.data.domain.Pageable.class));
+        verify(repo, never()).count();
+    }
+
+    @Test
+    void ShouldGetProductsWithEstimatedTotal() {
+        List<ProductResponse> products = List.of(
+                new ProductResponse(1L, "Laptop", BigDecimal.valueOf(50000)));
+
+        when(repo.findResponseSlice(any(org.springframework.data.domain.Pageable.class)))
+                .thenReturn(new SliceImpl<>(products, PageRequest.of(0, 10), false));
+        when(countEstimator.estimate()).thenReturn(25L);
+
+        PaginatedResponse<ProductResponse> resp = service.getAllProducts(0, 10, TotalMode.ESTIMATED);
+
+        assertEquals(25L, resp.totalItems());
+        assertEquals(3, resp.totalPages());
+        assertFalse(resp.hasNext());
+    }
+
+    // ---------- CURSOR ----------
+    @Test
+    void ShouldGetFirstCursorPageWithNextCursor() {
+        List<ProductResponse> products = List.of(
+                new ProductResponse(1L, "Laptop", BigDecimal.valueOf(50000)),
+                new ProductResponse(2L, "Phone", BigDecimal.valueOf(20000)),
+                new ProductResponse(3L, "Tablet", BigDecimal.valueOf(30000)));
+
+        when(repo.findResponsesAfterId(0L, Limit.of(3))).thenReturn(products);
+
+        CursorPageResponse<ProductResponse> resp = service.getProductsAfter("", 2);
+
+        assertEquals(2, resp.items().size());
+        assertEquals(2L, CursorCodec.decode(resp.nextCursor()));
+    }
+
+    @Test
+    void ShouldReturnNoCursorOnLastPage() {
+        List<ProductResponse> products = List.of(
+                new ProductResponse(3L, "Tablet", BigDecimal.valueOf(30000)));
+
+        when(repo.findResponsesAfterId(2L, Limit.of(3))).thenReturn(products);
+
+        CursorPageResponse<ProductResponse> resp = service.getProductsAfter(CursorCodec.encode(2L), 2);
+
+        assertEquals(1, resp.items().size());
+        assertNull(resp.nextCursor());
+    }
+
+    @Test
+    void ShouldGetFilteredSliceWithoutEstimatedTotals() {
+        ProductQuery query = new ProductQuery(BigDecimal.ONE, null, ProductSort.PRICE, false);
+        List<ProductResponse> products = List.of(
+                new ProductResponse(2L, "Phone", BigDecimal.valueOf(20000)));
+
+        when(repo.findSlice(query, PageRequest.of(0, 10)))
+                .thenReturn(new SliceImpl<>(products, PageRequest.of(0, 10), false));
+
+        PaginatedResponse<ProductResponse> resp = service.getAllProducts(0, 10, TotalMode.ESTIMATED, query);
+
+        assertEquals(1, resp.items().size());
+        assertNull(resp.totalItems());
+        verify(countEstimator, never()).estimate();
+    }
+
+    @Test
+    void ShouldCountFilteredProductsWhenExactTotalRequested() {
+        ProductQuery query = new ProductQuery(null, BigDecimal.TEN, ProductSort.NAME, true);
+
+        when(repo.findSlice(query, PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 2), false));
+        when(repo.countMatching(query)).thenReturn(5L);
+
+        PaginatedResponse<ProductResponse> resp = service.getAllProducts(0, 2, TotalMode.EXACT, query);
+
+        assertEquals(5L, resp.totalItems());
+        assertEquals(3, resp.totalPages());
+        verify(repo, never()).findResponsePage(any(PageRequest.class));
+    }
+
+    @Test
+    void ShouldSeekSortedCursorPagesOnSortValueAndId() {
+        ProductQuery query = new ProductQuery(null, null, ProductSort.PRICE, false);
+        List<ProductResponse> firstRows = List.of(
+                new ProductResponse(7L, "Mouse", new BigDecimal("10.50")),
+                new ProductResponse(3L, "Cable", new BigDecimal("12.00")));
+
+        when(repo.findAfter(query, null, null, Limit.of(2))).thenReturn(firstRows);
+
+        CursorPageResponse<ProductResponse> first = service.getProductsAfter("", 1, query);
+
+        assertEquals(7L, first.items().get(0).id());
+        assertNotNull(first.nextCursor());
+
+        when(repo.findAfter(query, new BigDecimal("10.50"), 7L, Limit.of(2))).thenReturn(firstRows.subList(1, 2));
+
+        CursorPageResponse<ProductResponse> second = service.getProductsAfter(first.nextCursor(), 1, query);
+
+        assertEquals(3L, second.items().get(0).id());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void ShouldRejectCursorIssuedForAnotherSortOrder() {
+        ProductQuery byPrice = new ProductQuery(null, null, ProductSort.PRICE, false);
+        ProductQuery byName = new ProductQuery(null, null, ProductSort.NAME, false);
+        String cursor = CursorCodec.encode("price.asc", 7L, "10.50");
+
+        assertEquals(new CursorCodec.Position(7L, "10.50"), CursorCodec.decode(cursor, "price.asc"));
+        AppException ex = assertThrows(AppException.class, () -> service.getProductsAfter(cursor, 1, byName));
+        assertEquals("ERR-202", ex.getErrorCode());
+        assertThrows(AppException.class, () -> service.getProductsAfter(CursorCodec.encode(7L), 1, byPrice));
+    }
+
+    @Test
+    void ShouldFailCursorPageWhenCursorInvalid() {
+        assertThrows(AppException.class, () -> service.getProductsAfter("%%%", 10));
     }
 
     // ---------- GET ONE ----------
     @Test
     void ShouldGetProduct() {
-        Product p = Product.builder()
-                .id(1L)
-                .name("Laptop")
-                .price(BigDecimal.valueOf(50000))
-                .build();
+        ProductResponse p = new ProductResponse(1L, "Laptop", BigDecimal.valueOf(50000), 0L);
 
-        when(repo.findById(1L)).thenReturn(Optional.of(p));
+        when(repo.findResponseById(1L)).thenReturn(Optional.of(p));
 
         ProductResponse resp = service.get(1L);
 
         assertEquals(1L, resp.id());
         assertEquals("Laptop", resp.name());
-        verify(repo).findById(1L);
+        verify(repo).findResponseById(1L);
     }
 
     @Test
     void ShouldGetProductNotFound() {
-        when(repo.findById(1L)).thenReturn(Optional.empty());
+        when(repo.findResponseById(1L)).thenReturn(Optional.empty());
 
         assertThrows(AppException.class, () -> service.get(1L));
     }
 
+    @Test
+    void ShouldServeRepeatedGetFromCache() {
+        ProductResponse p = new ProductResponse(1L, "Laptop", BigDecimal.valueOf(50000));
+        when(repo.findResponseById(1L)).thenReturn(Optional.of(p));
+
+        service.get(1L);
+        ProductResponse resp = service.get(1L);
+
+        assertEquals("Laptop", resp.name());
+        verify(repo, times(1)).findResponseById(1L);
+        assertEquals(1, cache.stats().get(0).hits());
+    }
+
+    @Test
+    void ShouldRefreshAndRemoveCachedProductOnWrites() {
+        ProductResponse p = new ProductResponse(1L, "Laptop", BigDecimal.valueOf(50000));
+        when(repo.findResponseById(1L)).thenReturn(Optional.of(p));
+        service.get(1L);
+
+        cache.onProductChanged(ProductChangedEvent.updated(new ProductResponse(1L, "Laptop Pro", BigDecimal.TEN)));
+        assertEquals("Laptop Pro", service.get(1L).name());
+
+        cache.onProductChanged(ProductChangedEvent.deleted(1L));
+        when(repo.findResponseById(1L)).thenReturn(Optional.empty());
+        assertThrows(AppException.class, () -> service.get(1L));
+        verify(repo, times(2)).findResponseById(1L);
+    }
+
+    @Test
+    void ShouldNotCacheProductsFromCreateOrUncachedUpdateEvents() {
+        cache.onProductChanged(ProductChangedEvent.created(new ProductResponse(1L, "Laptop", BigDecimal.TEN)));
+        cache.onProductChanged(ProductChangedEvent.updated(new ProductResponse(2L, "Phone", BigDecimal.ONE)));
+
+        assertEquals(0, cache.stats().get(0).size());
+    }
+
+    @Test
+    void ShouldCacheListingPagesUntilCatalogChanges() {
+        List<ProductResponse> products = List.of(
+                new ProductResponse(1L, "Laptop", BigDecimal.valueOf(50000)));
+        when(repo.findResponseSlice(PageRequest.of(0, 10)))
+                .thenReturn(new SliceImpl<>(products, PageRequest.of(0, 10), false));
+
+        service.getAllProducts(0, 10, TotalMode.NONE);
+        service.getAllProducts(0, 10, TotalMode.NONE);
+        verify(repo, times(1)).findResponseSlice(PageRequest.of(0, 10));
+
+        cache.onProductChanged(ProductChangedEvent.deleted(2L));
+        service.getAllProducts(0, 10, TotalMode.NONE);
+        verify(repo, times(2)).findResponseSlice(PageRequest.of(0, 10));
+    }
+
+    @Test
+    void ShouldDeriveCatalogETagFromPersistedRevisionWithoutQuerying() {
+        when(revisions.current()).thenReturn(7L, 7L, 8L);
+
+        assertEquals("\"7\"", service.catalogETag());
+        assertEquals("\"7\"", service.catalogETag());
+        assertEquals("\"8\"", service.catalogETag());
+        verifyNoInteractions(repo);
+    }
+
+    // ---------- CONTENTION ----------
+    @Test
+    void ShouldCollapseConcurrentGetsIntoOneQuery() throws Exception {
+        ProductService uncached = new ProductService(repo, countEstimator,
+                new ProductCache(false, 100, Duration.ofMinutes(10), 100, Duration.ofSeconds(30)), events, revisions);
+        ProductResponse p = new ProductResponse(1L, "Laptop", BigDecimal.valueOf(50000));
+        CountDownLatch release = new CountDownLatch(1);
+        when(repo.findResponseById(1L)).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(p);
+        });
+
+        List<Future<ProductResponse>> results = runConcurrently(32, () -> uncached.get(1L), release);
+
+        for (Future<ProductResponse> result : results) {
+            assertEquals("Laptop", result.get(5, TimeUnit.SECONDS).name());
+        }
+        verify(repo, times(1)).findResponseById(1L);
+    }
+
+    @Test
+    void ShouldShareNotFoundBetweenConcurrentGets() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(repo.findResponseById(9L)).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+
+        List<Future<ProductResponse>> results = runConcurrently(32, () -> service.get(9L), release);
+
+        for (Future<ProductResponse> result : results) {
+            Exception ex = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AppException.class, ex.getCause());
+        }
+        verify(repo, times(1)).findResponseById(9L);
+    }
+
+    @Test
+    void ShouldCollapseConcurrentIdenticalListingQueries() throws Exception {
+        ProductService uncached = new ProductService(repo, countEstimator,
+                new ProductCache(false, 100, Duration.ofMinutes(10), 100, Duration.ofSeconds(30)), events, revisions);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repo.findResponseSlice(PageRequest.of(0, 10))).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new SliceImpl<>(List.of(), PageRequest.of(0, 10), false);
+        });
+
+        List<Future<PaginatedResponse<ProductResponse>>> results =
+                runConcurrently(32, () -> uncached.getAllProducts(0, 10, TotalMode.NONE), release);
+
+        for (Future<PaginatedResponse<ProductResponse>> result : results) {
+            assertFalse(result.get(5, TimeUnit.SECONDS).hasNext());
+        }
+        verify(repo, times(1)).findResponseSlice(PageRequest.of(0, 10));
+    }
+
+    /**
+     * Submits the task on {@code threads} threads at once and opens
+     * {@code release}, which the stubbed query waits on, once they have all
+     * had time to reach the read path.
+     */
+    private static <T> List<Future<T>> runConcurrently(int threads, Callable<T> task,
+            CountDownLatch release) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch started = new CountDownLatch(threads);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(pool.submit(() -> {
+                started.countDown();
+                return task.call();
+            }));
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        release.countDown();
+        pool.shutdown();
+        return futures;
+    }
+
+    // ---------- GET BATCH ----------
+    @Test
+    void ShouldGetBatchInRequestOrderAndReportMissing() {
+        List<ProductResponse> products = List.of(
+                new ProductResponse(1L, "Laptop", BigDecimal.valueOf(50000)),
+                new ProductResponse(3L, "Tablet", BigDecimal.valueOf(30000)));
+
+        when(repo.findResponsesByIdIn(any())).thenReturn(products);
+
+        ProductBatchResponse resp = service.getBatch(List.of(3L, 2L, 1L, 3L));
+
+        assertEquals(List.of(3L, 1L), resp.items().stream().map(ProductResponse::id).toList());
+        assertEquals(List.of(2L), resp.missingIds());
+        verify(repo, times(1)).findResponsesByIdIn(any());
+    }
+
+    @Test
+    void ShouldFailGetBatchWhenTooManyIds() {
+        assertThrows(AppException.class, () -> service.getBatch(List.of(1L, 2L, 3L, 4L)));
+        verify(repo, never()).findResponsesByIdIn(any());
+    }
+
     // ---------- UPDATE ----------
     @Test
     void ShouldUpdateProduct() {
-        Product existing = Product.builder()
-                .id(1L)
-                .name("Laptop")
-                .price(BigDecimal.valueOf(50000))
-                .build();
-
         ProductRequest req = new ProductRequest("Laptop Pro", BigDecimal.valueOf(75000));
 
-        when(repo.findById(1L)).thenReturn(Optional.of(existing));
+        when(repo.updateById(1L, "Laptop Pro", BigDecimal.valueOf(75000))).thenReturn(1);
+        when(repo.findVersionById(1L)).thenReturn(Optional.of(4L));
 
-        ProductResponse resp = service.update(1L, req);
+        ProductResponse resp = service.update(1L, req, null);
 
         assertEquals("Laptop Pro", resp.name());
         assertEquals(BigDecimal.valueOf(75000), resp.price());
-        verify(repo).save(existing);
+        assertEquals(4L, resp.version());
+        verify(repo, never()).findById(any());
+        verify(events).publishEvent(ProductChangedEvent.updated(resp));
     }
 
     @Test
     void ShouldUpdateProductNotFound() {
-        when(repo.findById(1L)).thenReturn(Optional.empty());
+        when(repo.updateById(eq(1L), any(), any())).thenReturn(0);
 
         ProductRequest req = new ProductRequest("Laptop", BigDecimal.valueOf(50000));
 
-        assertThrows(AppException.class, () -> service.update(1L, req));
+        AppException ex = assertThrows(AppException.class, () -> service.update(1L, req, null));
+        assertEquals("ERR-201", ex.getErrorCode());
+        verifyNoInteractions(events);
+    }
+
+    @Test
+    void ShouldUpdateProductIfVersionMatches() {
+        ProductRequest req = new ProductRequest("Laptop Pro", BigDecimal.valueOf(75000));
+
+        when(repo.updateByIdAndVersion(1L, 3L, "Laptop Pro", BigDecimal.valueOf(75000))).thenReturn(1);
+
+        ProductResponse resp = service.update(1L, req, 3L);
+
+        assertEquals(4L, resp.version());
+        verify(repo, never()).findVersionById(any());
+        verify(repo, never()).existsById(any());
+    }
+
+    @Test
+    void ShouldRejectUpdateWhenVersionChanged() {
+        ProductRequest req = new ProductRequest("Laptop Pro", BigDecimal.valueOf(75000));
+
+        when(repo.updateByIdAndVersion(eq(1L), eq(3L), any(), any())).thenReturn(0);
+        when(repo.existsById(1L)).thenReturn(true);
+
+        AppException ex = assertThrows(AppException.class, () -> service.update(1L, req, 3L));
+        assertEquals("ERR-214", ex.getErrorCode());
+        assertEquals(HttpStatus.PRECONDITION_FAILED, ex.getStatus());
+        verifyNoInteractions(events);
     }
 
     // ---------- DELETE ----------
     @Test
     void ShouldDeleteProduct() {
-        doNothing().when(repo).deleteById(1L);
+        when(repo.removeById(1L)).thenReturn(1);
 
-        service.delete(1L);
+        service.delete(1L, null);
+
+        verify(repo).removeById(1L);
+        verify(repo, never()).deleteById(any());
+        verify(events).publishEvent(ProductChangedEvent.deleted(1L));
+    }
+
+    @Test
+    void ShouldDeleteProductNotFound() {
+        when(repo.removeById(1L)).thenReturn(0);
+
+        AppException ex = assertThrows(AppException.class, () -> service.delete(1L, null));
+        assertEquals("ERR-201", ex.getErrorCode());
+    }
+
+    @Test
+    void ShouldReportNotFoundWhenVersionedDeleteMissesProduct() {
+        when(repo.removeByIdAndVersion(1L, 3L)).thenReturn(0);
+        when(repo.existsById(1L)).thenReturn(false);
 
-        verify(repo).deleteById(1L);
+        AppException ex = assertThrows(AppException.class, () -> service.delete(1L, 3L));
+        assertEquals("ERR-201", ex.getErrorCode());
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
     }
 }
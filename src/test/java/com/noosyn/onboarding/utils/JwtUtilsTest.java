@@ -0,0 +1,39 @@
+package com.noosyn.onboarding.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+class JwtUtilsTest {
+
+    /** The secret {@link VerifiedTokenCacheTest#newJwtUtils(long)} signs with. */
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final JwtUtils jwt = VerifiedTokenCacheTest.newJwtUtils(60_000);
+    private final UserDetails user = User.withUsername("aaryan").password("x").roles("USER").build();
+
+    @Test
+    void ShouldAcceptTokenForSameUser() {
+        assertTrue(jwt.isTokenValid(VerifiedTokenCacheTest.tokenFor(jwt, "aaryan"), user));
+        assertFalse(jwt.isTokenValid(VerifiedTokenCacheTest.tokenFor(jwt, "other"), user));
+    }
+
+    @Test
+    void ShouldRejectSignedTokenWithoutSubject() {
+        String token = Jwts.builder()
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertFalse(jwt.isTokenValid(token, user));
+    }
+}
@@ -0,0 +1,56 @@
+package com.noosyn.onboarding.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PrefixTrieTest {
+
+    private PrefixTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new PrefixTrie();
+        trie.add("Laptop");
+        trie.add("Laptop Sleeve");
+        trie.add("Lamp");
+        trie.add("Gaming Laptop");
+    }
+
+    @Test
+    void ShouldCompleteIgnoringCaseInAlphabeticalOrder() {
+        assertEquals(List.of("Lamp", "Laptop", "Laptop Sleeve"), trie.complete("LA", 10));
+        assertEquals(List.of("Laptop Sleeve"), trie.complete("laptop s", 10));
+        assertEquals(List.of(), trie.complete("lapx", 10));
+    }
+
+    @Test
+    void ShouldStopAtLimit() {
+        assertEquals(List.of("Lamp", "Laptop"), trie.complete("l", 2));
+    }
+
+    @Test
+    void ShouldKeepNameUntilEveryOccurrenceIsRemoved() {
+        trie.add("laptop");
+
+        assertTrue(trie.remove("LAPTOP"));
+        assertEquals(List.of("Laptop", "Laptop Sleeve"), trie.complete("lap", 10));
+
+        assertTrue(trie.remove("Laptop"));
+        assertFalse(trie.remove("Laptop"));
+        assertEquals(List.of("Laptop Sleeve"), trie.complete("lap", 10));
+        assertEquals(3, trie.size());
+    }
+
+    @Test
+    void ShouldRecompressAfterRemovals() {
+        trie.remove("Lamp");
+        trie.remove("Laptop");
+
+        assertEquals(List.of("Laptop Sleeve"), trie.complete("l", 10));
+        assertEquals(List.of("Laptop Sleeve"), trie.complete("laptop sl", 10));
+    }
+}
@@ -0,0 +1,57 @@
+package com.noosyn.onboarding.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class ProductOperationEventTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void ShouldRecordRowsAndFailures() throws Exception {
+        Path file = dir.resolve("ops.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ProductOperationEvent.class).withoutThreshold();
+            recording.start();
+
+            List<String> rows = ProductOperationEvent.record("list", 0, () -> List.of("a", "b"), List::size);
+            assertEquals(2, rows.size());
+            assertThrows(IllegalStateException.class, () -> ProductOperationEvent.record("get", 7,
+                    () -> { throw new IllegalStateException(); }, r -> 1));
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("com.noosyn.onboarding.ProductOperation"))
+                .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+                .toList();
+        assertEquals(2, events.size());
+
+        RecordedEvent list = events.get(0);
+        assertEquals("list", list.getString("operation"));
+        assertEquals(2, list.getInt("rows"));
+        assertFalse(list.getBoolean("failed"));
+
+        RecordedEvent get = events.get(1);
+        assertEquals(7, get.getLong("productId"));
+        assertTrue(get.getBoolean("failed"));
+    }
+
+    @Test
+    void ShouldRunOperationWhenEventIsDisabled() {
+        assertEquals("ok", ProductOperationEvent.record("get", 1, () -> "ok", r -> 1));
+    }
+}
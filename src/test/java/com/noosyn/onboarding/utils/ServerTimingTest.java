@@ -0,0 +1,72 @@
+package com.noosyn.onboarding.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class ServerTimingTest {
+
+    @Test
+    void ShouldNotReadClockWhenNoRecorderIsBound() {
+        assertEquals(0, ServerTiming.start());
+
+        ServerTiming.record("db", 0);
+        ServerTiming.serializationStarted();
+    }
+
+    @Test
+    void ShouldSumRepeatedPhasesAndAddTotal() {
+        ServerTiming timing = ServerTiming.begin();
+        ServerTiming.record("jwt", ServerTiming.start());
+        ServerTiming.record("db", ServerTiming.start());
+        ServerTiming.record("db", ServerTiming.start());
+        timing.end();
+
+        String header = timing.header();
+        assertTrue(header.startsWith("jwt;dur="), header);
+        assertTrue(header.contains("db;dur="), header);
+        assertTrue(header.contains(";desc=\"2 calls\""), header);
+        assertTrue(header.contains("total;dur="), header);
+        assertTrue(timing.logFields().contains("db_calls=2"));
+        assertEquals(0, ServerTiming.start());
+    }
+
+    @Test
+    void ShouldAddHeaderWithSerializationPhase() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                ServerTiming.serializationStarted();
+                resp.getWriter().write("{\"id\":1}");
+            }
+        });
+
+        new ServerTimingFilter().doFilter(request, response, chain);
+
+        String header = response.getHeader(ServerTimingFilter.HEADER);
+        assertNotNull(header);
+        assertTrue(header.startsWith("serialize;dur="), header);
+        assertEquals("{\"id\":1}", response.getContentAsString());
+    }
+
+    @Test
+    void ShouldSkipStreamingExport() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products/export");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ServerTimingFilter().doFilter(request, response, new MockFilterChain());
+
+        assertNull(response.getHeader(ServerTimingFilter.HEADER));
+    }
+}
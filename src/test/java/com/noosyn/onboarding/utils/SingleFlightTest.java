@@ -0,0 +1,100 @@
+package com.noosyn.onboarding.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private static final int THREADS = 32;
+
+    private final SingleFlight<String, String> flight = new SingleFlight<>();
+
+    @Test
+    void ShouldShareOneLoadBetweenConcurrentCallers() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<String> results = runConcurrently(() -> flight.execute("hot", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "value";
+        }), release);
+
+        assertEquals(1, loads.get());
+        assertEquals(THREADS, results.stream().filter("value"::equals).count());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void ShouldShareFailureAndLoadAgainAfterwards() {
+        IllegalStateException failure = new IllegalStateException("down");
+
+        assertSame(failure, assertThrows(IllegalStateException.class,
+                () -> flight.execute("key", () -> {
+                    throw failure;
+                })));
+        assertEquals("recovered", flight.execute("key", () -> "recovered"));
+    }
+
+    @Test
+    void ShouldNotCoalesceDifferentKeys() {
+        assertEquals("a", flight.execute("a", () -> "a"));
+        assertEquals("b", flight.execute("b", () -> "b"));
+    }
+
+    /**
+     * Runs the task on {@link #THREADS} threads at once and opens
+     * {@code release} once they are all running, so every caller arrives
+     * while the first load is still in flight.
+     */
+    private static <T> List<T> runConcurrently(Callable<T> task, CountDownLatch release)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch started = new CountDownLatch(THREADS);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(pool.submit(() -> {
+                    started.countDown();
+                    return task.call();
+                }));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // Give the callers time to reach the in-flight load before it completes
+            Thread.sleep(200);
+            release.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                try {
+                    results.add(future.get(5, TimeUnit.SECONDS));
+                } catch (ExecutionException ex) {
+                    results.add(null);
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
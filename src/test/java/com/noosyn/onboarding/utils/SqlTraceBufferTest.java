@@ -0,0 +1,68 @@
+package com.noosyn.onboarding.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class SqlTraceBufferTest {
+
+    private static SqlTrace trace(long nanos) {
+        return new SqlTrace("select 1", nanos, 1, false, 0, "test");
+    }
+
+    @Test
+    void ShouldRoundCapacityUpToPowerOfTwo() {
+        assertEquals(4, new SqlTraceBuffer(3).capacity());
+        assertEquals(4096, new SqlTraceBuffer(4096).capacity());
+    }
+
+    @Test
+    void ShouldDrainInOrderAndDropWhenFull() {
+        SqlTraceBuffer buffer = new SqlTraceBuffer(4);
+        for (int i = 0; i < 6; i++) {
+            buffer.offer(trace(i));
+        }
+
+        List<SqlTrace> drained = new ArrayList<>();
+        assertEquals(4, buffer.drain(drained::add, 10));
+
+        assertEquals(List.of(0L, 1L, 2L, 3L), drained.stream().map(SqlTrace::nanos).toList());
+        assertEquals(2, buffer.takeDropped());
+        assertEquals(0, buffer.takeDropped());
+        assertTrue(buffer.offer(trace(6)));
+    }
+
+    @Test
+    void ShouldAccountForEveryEntryWithConcurrentProducers() throws Exception {
+        SqlTraceBuffer buffer = new SqlTraceBuffer(256);
+        int producers = 8;
+        int perProducer = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            pool.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    buffer.offer(trace(i));
+                }
+                done.countDown();
+            });
+        }
+
+        long drained = 0;
+        while (done.getCount() > 0) {
+            drained += buffer.drain(t -> assertNotNull(t), 64);
+        }
+        drained += buffer.drain(t -> assertNotNull(t), buffer.capacity());
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals((long) producers * perProducer, drained + buffer.takeDropped());
+    }
+}
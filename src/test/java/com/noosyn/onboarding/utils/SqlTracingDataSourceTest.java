@@ -0,0 +1,127 @@
+package com.noosyn.onboarding.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SqlTracingDataSourceTest {
+
+    private JdbcDataSource h2;
+
+    @BeforeEach
+    void setup() throws Exception {
+        h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql-trace;DB_CLOSE_DELAY=-1");
+        try (Connection c = h2.getConnection(); Statement s = c.createStatement()) {
+            s.execute("drop table if exists item");
+            s.execute("create table item (id int primary key, name varchar(50))");
+        }
+    }
+
+    private static SqlTracer tracer(Duration slowThreshold) {
+        return new SqlTracer(slowThreshold, 0, 64, Duration.ofSeconds(1));
+    }
+
+    @Test
+    void ShouldTraceUpdatesAndBatchesWithRowCountsAndQueriesWithout() throws Exception {
+        SqlTracer tracer = tracer(Duration.ZERO);
+        SqlTracingDataSource dataSource = new SqlTracingDataSource(h2, tracer);
+
+        try (Connection c = dataSource.getConnection()) {
+            try (PreparedStatement insert = c.prepareStatement("insert into item (id, name) values (?, ?)")) {
+                for (int i = 1; i <= 3; i++) {
+                    insert.setInt(1, i);
+                    insert.setString(2, "item-" + i);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            try (PreparedStatement update = c.prepareStatement("update item set name = ? where id > ?")) {
+                update.setString(1, "renamed");
+                update.setInt(2, 1);
+                update.executeUpdate();
+            }
+            try (PreparedStatement select = c.prepareStatement("select id from item order by id");
+                    ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    rs.getInt(1);
+                }
+            }
+        }
+
+        List<SqlTrace> traces = new ArrayList<>();
+        tracer.drain(traces::add);
+
+        assertEquals(3, traces.size());
+        assertEquals(3, traces.get(0).rows());
+        assertEquals(2, traces.get(1).rows());
+        assertEquals("select id from item order by id", traces.get(2).sql());
+        assertEquals(-1, traces.get(2).rows());
+        assertTrue(traces.stream().allMatch(SqlTrace::slow));
+        assertEquals(3, tracer.statementCount());
+    }
+
+    @Test
+    void ShouldDiscardFastStatementsWhenNotSampled() throws Exception {
+        SqlTracer tracer = tracer(Duration.ofMinutes(1));
+        SqlTracingDataSource dataSource = new SqlTracingDataSource(h2, tracer);
+
+        try (Connection c = dataSource.getConnection();
+                PreparedStatement s = c.prepareStatement("insert into item (id, name) values (1, 'a')")) {
+            s.executeUpdate();
+        }
+
+        assertEquals(0, tracer.drain(t -> fail("fast statement was kept")));
+        assertEquals(1, tracer.statementCount());
+        assertEquals(0, tracer.slowCount());
+    }
+
+    @Test
+    void ShouldRecordQueriesAtExecuteWithoutWrappingResultSets() throws Exception {
+        SqlTracer tracer = tracer(Duration.ZERO);
+        SqlTracingDataSource dataSource = new SqlTracingDataSource(h2, tracer);
+
+        try (Connection c = dataSource.getConnection();
+                PreparedStatement select = c.prepareStatement("select id from item")) {
+            assertTrue(select.execute());
+            ResultSet rs = select.getResultSet();
+            assertEquals(1, tracer.statementCount());
+            assertFalse(Proxy.isProxyClass(rs.getClass()));
+            rs.close();
+        }
+        assertEquals(1, tracer.statementCount());
+    }
+
+    @Test
+    void ShouldNotTracePlainStatements() throws Exception {
+        SqlTracer tracer = tracer(Duration.ZERO);
+        SqlTracingDataSource dataSource = new SqlTracingDataSource(h2, tracer);
+
+        try (Connection c = dataSource.getConnection(); Statement s = c.createStatement()) {
+            s.executeUpdate("insert into item (id, name) values (1, 'a')");
+        }
+
+        assertEquals(0, tracer.statementCount());
+    }
+
+    @Test
+    void ShouldUseProxyIdentityForEqualsAndHashCode() throws Exception {
+        SqlTracingDataSource dataSource = new SqlTracingDataSource(h2, tracer(Duration.ZERO));
+
+        try (Connection c = dataSource.getConnection(); PreparedStatement s = c.prepareStatement("select 1")) {
+            assertEquals(s, s);
+            assertEquals(System.identityHashCode(s), s.hashCode());
+        }
+    }
+}
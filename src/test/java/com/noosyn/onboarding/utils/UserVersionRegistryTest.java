@@ -0,0 +1,45 @@
+package com.noosyn.onboarding.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class UserVersionRegistryTest {
+
+    private final UserVersionRegistry registry = new UserVersionRegistry();
+
+    @Test
+    void ShouldRequireVerificationForUnknownUsername() {
+        assertTrue(registry.isStale("aaryan", 0));
+    }
+
+    @Test
+    void ShouldTrustTokenOfCurrentVersionOnly() {
+        registry.record("aaryan", 2);
+        registry.record("aaryan", 1);
+
+        assertFalse(registry.isStale("aaryan", 2));
+        assertTrue(registry.isStale("aaryan", 1));
+    }
+
+    @Test
+    void ShouldTreatDeletedUserAsStaleUntilLoadedAgain() {
+        registry.record("aaryan", 2);
+        registry.recordDeleted("aaryan");
+
+        assertTrue(registry.isStale("aaryan", 2));
+
+        registry.record("aaryan", 0);
+        assertFalse(registry.isStale("aaryan", 0));
+    }
+
+    @Test
+    void ShouldNotOverwriteKnownVersionWithMissing() {
+        registry.record("aaryan", 3);
+        registry.recordMissing("aaryan");
+        registry.recordMissing("ghost");
+
+        assertFalse(registry.isStale("aaryan", 3));
+        assertTrue(registry.isStale("ghost", 0));
+    }
+}
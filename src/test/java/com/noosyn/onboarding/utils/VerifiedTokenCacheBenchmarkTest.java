@@ -0,0 +1,46 @@
+package com.noosyn.onboarding.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Compares cached and uncached token verification.
+ * <p>
+ * Not part of the regular build; run with
+ * {@code ./mvnw test -Dtest=VerifiedTokenCacheBenchmarkTest -Dbenchmark=true}.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VerifiedTokenCacheBenchmarkTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    void CompareCachedAndUncachedVerification() {
+        JwtUtils jwt = VerifiedTokenCacheTest.newJwtUtils(3_600_000);
+        VerifiedTokenCache cached = new VerifiedTokenCache(jwt, true, 10_000);
+        VerifiedTokenCache uncached = new VerifiedTokenCache(jwt, false, 10_000);
+        String token = VerifiedTokenCacheTest.tokenFor(jwt, "benchmark-user");
+
+        double uncachedNs = measure(uncached, token);
+        double cachedNs = measure(cached, token);
+
+        System.out.printf("token verification: uncached %.0f ns/op, cached %.0f ns/op (%.1fx)%n",
+                uncachedNs, cachedNs, uncachedNs / cachedNs);
+        assertTrue(cachedNs < uncachedNs);
+    }
+
+    private static double measure(VerifiedTokenCache cache, String token) {
+        for (int i = 0; i < WARMUP; i++) {
+            cache.verify(token);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            cache.verify(token);
+        }
+        return (System.nanoTime() - start) / (double) ITERATIONS;
+    }
+}
@@ -0,0 +1,109 @@
+package com.noosyn.onboarding.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Base64;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class VerifiedTokenCacheTest {
+
+    private JwtUtils jwt;
+
+    @BeforeEach
+    void setup() {
+        jwt = newJwtUtils(60_000);
+    }
+
+    static JwtUtils newJwtUtils(long expirationMs) {
+        return newJwtUtils(expirationMs, new SimpleMeterRegistry());
+    }
+
+    static JwtUtils newJwtUtils(long expirationMs, MeterRegistry registry) {
+        JwtUtils jwt = new JwtUtils(registry);
+        ReflectionTestUtils.setField(jwt, "secretKey",
+                Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes()));
+        ReflectionTestUtils.setField(jwt, "expirationTime", expirationMs);
+        jwt.init();
+        return jwt;
+    }
+
+    private static double gets(VerifiedTokenCache cache, String result) {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        return registry.get("cache.gets").tags("cache", "jwt.tokens", "result", result).functionCounter().count();
+    }
+
+    static String tokenFor(JwtUtils jwt, String username) {
+        return jwt.generateToken(User.withUsername(username).password("x").roles("USER").build(), 2L);
+    }
+
+    @Test
+    void ShouldVerifyOnceAndServeRepeatsFromCache() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwt, true, 100);
+        String token = tokenFor(jwt, "aaryan");
+
+        Optional<VerifiedToken> first = cache.verify(token);
+        Optional<VerifiedToken> second = cache.verify(token);
+
+        assertTrue(first.isPresent());
+        assertEquals("aaryan", second.get().username());
+        assertEquals(2L, second.get().userVersion());
+        assertTrue(second.get().roles().contains("ROLE_USER"));
+        assertEquals(1, gets(cache, "miss"));
+        assertEquals(1, gets(cache, "hit"));
+    }
+
+    @Test
+    void ShouldNotCacheInvalidTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwt, true, 100);
+
+        assertTrue(cache.verify("not-a-jwt").isEmpty());
+        assertTrue(cache.verify("not-a-jwt").isEmpty());
+
+        assertEquals(0, gets(cache, "hit"));
+    }
+
+    @Test
+    void ShouldRejectExpiredTokens() {
+        JwtUtils expiring = newJwtUtils(-1_000);
+        VerifiedTokenCache cache = new VerifiedTokenCache(expiring, true, 100);
+
+        assertTrue(cache.verify(tokenFor(expiring, "aaryan")).isEmpty());
+    }
+
+    @Test
+    void ShouldBypassCacheWhenDisabled() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwt, false, 100);
+        String token = tokenFor(jwt, "aaryan");
+
+        assertTrue(cache.verify(token).isPresent());
+        assertTrue(cache.verify(token).isPresent());
+
+        assertEquals(0, gets(cache, "hit"));
+        assertEquals(0, gets(cache, "miss"));
+    }
+
+    @Test
+    void ShouldTimeOnlyCacheMissesByOutcome() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        JwtUtils timed = newJwtUtils(60_000, registry);
+        VerifiedTokenCache cache = new VerifiedTokenCache(timed, true, 100);
+        String token = tokenFor(timed, "aaryan");
+
+        cache.verify(token);
+        cache.verify(token);
+        cache.verify("not-a-jwt");
+
+        assertEquals(1, registry.get("jwt.tokens").tag("operation", "generate").timer().count());
+        assertEquals(1, registry.get("jwt.tokens").tag("outcome", "valid").timer().count());
+        assertEquals(1, registry.get("jwt.tokens").tag("outcome", "invalid").timer().count());
+    }
+}